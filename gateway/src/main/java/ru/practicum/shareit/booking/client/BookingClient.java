@@ -1,16 +1,24 @@
 package ru.practicum.shareit.booking.client;
 
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 
 import ru.practicum.shareit.booking.dto.BookItemRequestDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingState;
 import ru.practicum.shareit.client.BaseClient;
 
@@ -18,6 +26,12 @@ import ru.practicum.shareit.client.BaseClient;
 public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
 
+    /**
+     * Event streams stay open for minutes, so they bypass the pooled client used for ordinary calls and would
+     * otherwise exhaust its per-route connection limit.
+     */
+    private final ClientHttpRequestFactory streamRequestFactory = new SimpleClientHttpRequestFactory();
+
     @Autowired
     public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
         super(
@@ -28,18 +42,21 @@ public class BookingClient extends BaseClient {
         );
     }
 
-    public ResponseEntity<Object> getBookings(Long userId, BookingState state, Integer from, Integer size) {
-        Map<String, Object> parameters = Map.of(
-                "state", state.name(),
-                "from", from,
-                "size", size
-        );
-        return get("?state={state}&from={from}&size={size}", userId, parameters);
+    public ResponseEntity<Object> getBookings(Long userId, BookingState state, Integer from, Integer size, String cursor) {
+        return get(listPath("", cursor), userId, listParameters(state, from, size, cursor));
     }
 
 
-    public ResponseEntity<Object> bookItem(Long userId, BookItemRequestDto requestDto) {
-        return post("", userId, requestDto);
+    public ResponseEntity<Object> bookItem(Long userId, String idempotencyKey, BookItemRequestDto requestDto) {
+        return postIdempotent("", userId, idempotencyKey, requestDto);
+    }
+
+    public ResponseEntity<Object> getBookingSummary(Long userId) {
+        return get("/summary", userId);
+    }
+
+    public ResponseEntity<Object> getBookingSummaryByOwner(Long userId) {
+        return get("/owner/summary", userId);
     }
 
     public ResponseEntity<Object> getBooking(Long userId, Long bookingId) {
@@ -51,12 +68,32 @@ public class BookingClient extends BaseClient {
         return patch("/" + bookingId + "?approved={approved}", userId, parameters, null);
     }
 
-    public ResponseEntity<Object> getBookingsByOwner(Long userId, BookingState state, Integer from, Integer size) {
-        Map<String, Object> parameters = Map.of(
+    public ResponseEntity<Object> approveBookings(Long userId, List<BookingDecisionDto> decisions) {
+        return patch("/batch", userId, decisions);
+    }
+
+    public ResponseEntity<StreamingResponseBody> streamEvents(Long userId) throws IOException {
+        return stream(streamRequestFactory, "/events", userId, MediaType.TEXT_EVENT_STREAM);
+    }
+
+    public ResponseEntity<Object> getBookingsByOwner(Long userId, BookingState state, Integer from, Integer size, String cursor) {
+        return get(listPath("/owner", cursor), userId, listParameters(state, from, size, cursor));
+    }
+
+    private static String listPath(String path, String cursor) {
+        String query = path + "?state={state}&from={from}&size={size}";
+        return cursor == null ? query : query + "&cursor={cursor}";
+    }
+
+    private static Map<String, Object> listParameters(BookingState state, Integer from, Integer size, String cursor) {
+        Map<String, Object> parameters = new HashMap<>(Map.of(
                 "state", state.name(),
                 "from", from,
                 "size", size
-        );
-        return get("/owner?state={state}&from={from}&size={size}", userId, parameters);
+        ));
+        if (cursor != null) {
+            parameters.put("cursor", cursor);
+        }
+        return parameters;
     }
-}
\ No newline at end of file
+}
@@ -10,6 +10,10 @@ import ru.practicum.shareit.client.BaseClient;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @Service
@@ -25,25 +29,72 @@ public class ItemClient extends BaseClient {
         );
     }
 
-    public ResponseEntity<Object> createItem(Long ownerId, ItemDto itemDto) {
-        return post("", ownerId, itemDto);
+    public ResponseEntity<Object> createItem(Long ownerId, String idempotencyKey, ItemDto itemDto) {
+        return postIdempotent("", ownerId, idempotencyKey, itemDto);
+    }
+
+    public ResponseEntity<Object> createItems(Long ownerId, List<ItemDto> itemDtos) {
+        return post("/batch", ownerId, itemDtos);
     }
 
     public ResponseEntity<Object> updateItem(Long ownerId, Long itemId, ItemDto itemDto) {
         return patch("/" + itemId, ownerId, itemDto);
     }
 
-    public ResponseEntity<Object> getItemById(Long userId, Long itemId) {
-        return get("/" + itemId, userId);
+    public ResponseEntity<Object> getItemById(Long userId, Long itemId, Integer commentsLimit) {
+        if (commentsLimit == null) {
+            return get("/" + itemId, userId);
+        }
+        return get("/" + itemId + "?commentsLimit={commentsLimit}", userId, Map.of("commentsLimit", commentsLimit));
+    }
+
+    public ResponseEntity<Object> getAllItemsByOwner(Long ownerId, Integer commentsLimit) {
+        if (commentsLimit == null) {
+            return get("", ownerId);
+        }
+        return get("?commentsLimit={commentsLimit}", ownerId, Map.of("commentsLimit", commentsLimit));
+    }
+
+    public ResponseEntity<Object> getComments(Long itemId, Integer size, String cursor) {
+        Map<String, Object> parameters = new HashMap<>(Map.of("size", size));
+        String path = "/" + itemId + "/comments?size={size}";
+        if (cursor != null) {
+            parameters.put("cursor", cursor);
+            path += "&cursor={cursor}";
+        }
+        return get(path, null, parameters);
+    }
+
+    public ResponseEntity<Object> getAvailability(Long itemId, LocalDateTime from, LocalDateTime to) {
+        Map<String, Object> parameters = Map.of(
+                "from", from.toString(),
+                "to", to.toString()
+        );
+        return get("/" + itemId + "/availability?from={from}&to={to}", null, parameters);
     }
 
-    public ResponseEntity<Object> getAllItemsByOwner(Long ownerId) {
-        return get("", ownerId);
+    public ResponseEntity<Object> getNextFreeSlot(Long itemId, LocalDateTime from, Duration length) {
+        Map<String, Object> parameters = new HashMap<>(Map.of("length", length.toString()));
+        String path = "/" + itemId + "/availability/next?length={length}";
+        if (from != null) {
+            parameters.put("from", from.toString());
+            path += "&from={from}";
+        }
+        return get(path, null, parameters);
     }
 
-    public ResponseEntity<Object> searchItems(String text) {
-        Map<String, Object> parameters = Map.of("text", text);
-        return get("/search?text={text}", null, parameters);
+    public ResponseEntity<Object> searchItems(String text, Integer from, Integer size, String cursor) {
+        Map<String, Object> parameters = new HashMap<>(Map.of(
+                "text", text,
+                "from", from,
+                "size", size
+        ));
+        String path = "/search?text={text}&from={from}&size={size}";
+        if (cursor != null) {
+            parameters.put("cursor", cursor);
+            path += "&cursor={cursor}";
+        }
+        return get(path, null, parameters);
     }
 
     public ResponseEntity<Object> addComment(Long userId, Long itemId, CommentDto commentDto) {
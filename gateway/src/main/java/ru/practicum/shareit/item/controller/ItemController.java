@@ -1,13 +1,24 @@
 package ru.practicum.shareit.item.controller;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.client.BaseClient;
 import ru.practicum.shareit.item.client.ItemClient;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
 @RestController
 @RequestMapping("/items")
 @RequiredArgsConstructor
@@ -16,8 +27,16 @@ public class ItemController {
 
     @PostMapping
     public ResponseEntity<Object> createItem(@RequestHeader("X-Sharer-User-Id") Long ownerId,
+                                             @RequestHeader(name = BaseClient.IDEMPOTENCY_KEY, required = false)
+                                             @Size(max = 255) String idempotencyKey,
                                              @RequestBody @Valid ItemDto itemDto) {
-        return itemClient.createItem(ownerId, itemDto);
+        return itemClient.createItem(ownerId, idempotencyKey, itemDto);
+    }
+
+    @PostMapping("/batch")
+    public ResponseEntity<Object> createItems(@RequestHeader("X-Sharer-User-Id") Long ownerId,
+                                              @RequestBody @NotEmpty @Size(max = 1000) List<ItemDto> itemDtos) {
+        return itemClient.createItems(ownerId, itemDtos);
     }
 
     @PatchMapping("/{itemId}")
@@ -29,18 +48,46 @@ public class ItemController {
 
     @GetMapping("/{itemId}")
     public ResponseEntity<Object> getItemById(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                              @PathVariable Long itemId) {
-        return itemClient.getItemById(userId, itemId);
+                                              @PathVariable Long itemId,
+                                              @PositiveOrZero @Max(100) @RequestParam(required = false) Integer commentsLimit) {
+        return itemClient.getItemById(userId, itemId, commentsLimit);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getAllItemsByOwner(@RequestHeader("X-Sharer-User-Id") Long ownerId) {
-        return itemClient.getAllItemsByOwner(ownerId);
+    public ResponseEntity<Object> getAllItemsByOwner(@RequestHeader("X-Sharer-User-Id") Long ownerId,
+                                                     @PositiveOrZero @Max(100) @RequestParam(required = false) Integer commentsLimit) {
+        return itemClient.getAllItemsByOwner(ownerId, commentsLimit);
+    }
+
+    @GetMapping("/{itemId}/comments")
+    public ResponseEntity<Object> getComments(@PathVariable Long itemId,
+                                              @Positive @RequestParam(defaultValue = "10") Integer size,
+                                              @RequestParam(required = false) String cursor) {
+        return itemClient.getComments(itemId, size, cursor);
+    }
+
+    @GetMapping("/{itemId}/availability")
+    public ResponseEntity<Object> getAvailability(
+            @PathVariable Long itemId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return itemClient.getAvailability(itemId, from, to);
+    }
+
+    @GetMapping("/{itemId}/availability/next")
+    public ResponseEntity<Object> getNextFreeSlot(
+            @PathVariable Long itemId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam Duration length) {
+        return itemClient.getNextFreeSlot(itemId, from, length);
     }
 
     @GetMapping("/search")
-    public ResponseEntity<Object> searchItems(@RequestParam String text) {
-        return itemClient.searchItems(text);
+    public ResponseEntity<Object> searchItems(@RequestParam String text,
+                                              @PositiveOrZero @RequestParam(defaultValue = "0") Integer from,
+                                              @Positive @RequestParam(defaultValue = "10") Integer size,
+                                              @RequestParam(required = false) String cursor) {
+        return itemClient.searchItems(text, from, size, cursor);
     }
 
     @PostMapping("/{itemId}/comment")
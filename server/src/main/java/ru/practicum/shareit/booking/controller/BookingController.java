@@ -1,18 +1,30 @@
 package ru.practicum.shareit.booking.controller;
 
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.booking.stream.BookingEventStream;
 
 import java.util.List;
 
 @RestController
 @RequestMapping("/bookings")
 @RequiredArgsConstructor
+@Validated
 public class BookingController {
     private final BookingService bookingService;
+    private final BookingEventStream bookingEventStream;
 
     @PostMapping
     public BookingResponseDto createBooking(
@@ -29,6 +41,28 @@ public class BookingController {
         return bookingService.approveBooking(ownerId, bookingId, approved);
     }
 
+    @PatchMapping("/batch")
+    public List<BookingDecisionResultDto> approveBookings(
+            @RequestHeader("X-Sharer-User-Id") Long ownerId,
+            @RequestBody List<BookingDecisionDto> decisions) {
+        return bookingService.approveBookings(ownerId, decisions);
+    }
+
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamEvents(@RequestHeader("X-Sharer-User-Id") Long userId) {
+        return bookingEventStream.subscribe(userId);
+    }
+
+    @GetMapping("/summary")
+    public BookingSummaryDto getBookingSummaryByBooker(@RequestHeader("X-Sharer-User-Id") Long userId) {
+        return bookingService.getBookingSummaryByBooker(userId);
+    }
+
+    @GetMapping("/owner/summary")
+    public BookingSummaryDto getBookingSummaryByOwner(@RequestHeader("X-Sharer-User-Id") Long ownerId) {
+        return bookingService.getBookingSummaryByOwner(ownerId);
+    }
+
     @GetMapping("/{bookingId}")
     public BookingResponseDto getBooking(
             @PathVariable Long bookingId,
@@ -37,16 +71,22 @@ public class BookingController {
     }
 
     @GetMapping
-    public List<BookingResponseDto> getBookingsByBooker(
+    public ResponseEntity<List<BookingResponseDto>> getBookingsByBooker(
             @RequestHeader("X-Sharer-User-Id") Long userId,
-            @RequestParam(defaultValue = "ALL") String state) {
-        return bookingService.getBookingsByBooker(userId, state);
+            @RequestParam(defaultValue = "ALL") String state,
+            @PositiveOrZero @RequestParam(defaultValue = "0") Integer from,
+            @Positive @RequestParam(defaultValue = "10") Integer size,
+            @RequestParam(required = false) String cursor) {
+        return bookingService.getBookingsByBooker(userId, state, from, size, cursor).toResponseEntity();
     }
 
     @GetMapping("/owner")
-    public List<BookingResponseDto> getBookingsByOwner(
+    public ResponseEntity<List<BookingResponseDto>> getBookingsByOwner(
             @RequestHeader("X-Sharer-User-Id") Long ownerId,
-            @RequestParam(defaultValue = "ALL") String state) {
-        return bookingService.getBookingsByOwner(ownerId, state);
+            @RequestParam(defaultValue = "ALL") String state,
+            @PositiveOrZero @RequestParam(defaultValue = "0") Integer from,
+            @Positive @RequestParam(defaultValue = "10") Integer size,
+            @RequestParam(required = false) String cursor) {
+        return bookingService.getBookingsByOwner(ownerId, state, from, size, cursor).toResponseEntity();
     }
 }
\ No newline at end of file
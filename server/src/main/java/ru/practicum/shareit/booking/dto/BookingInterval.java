@@ -0,0 +1,9 @@
+package ru.practicum.shareit.booking.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Half-open interval [start, end) occupied by a waiting or approved booking.
+ */
+public record BookingInterval(Long bookingId, LocalDateTime start, LocalDateTime end) {
+}
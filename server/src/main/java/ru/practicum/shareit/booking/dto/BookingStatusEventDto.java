@@ -0,0 +1,35 @@
+package ru.practicum.shareit.booking.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ru.practicum.shareit.booking.event.BookingChangedEvent;
+import ru.practicum.shareit.booking.model.StatusBooking;
+
+import java.time.LocalDateTime;
+
+/**
+ * Payload of a {@code booking} event pushed to the booker and the item owner.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BookingStatusEventDto {
+    private Long bookingId;
+    private Long itemId;
+    private Long bookerId;
+    private Long ownerId;
+    private StatusBooking status;
+
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime start;
+
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime end;
+
+    public static BookingStatusEventDto of(BookingChangedEvent event) {
+        return new BookingStatusEventDto(event.bookingId(), event.itemId(), event.bookerId(), event.ownerId(),
+                event.status(), event.start(), event.end());
+    }
+}
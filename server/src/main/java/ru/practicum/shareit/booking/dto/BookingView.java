@@ -0,0 +1,23 @@
+package ru.practicum.shareit.booking.dto;
+
+import ru.practicum.shareit.booking.model.StatusBooking;
+
+import java.time.LocalDateTime;
+
+/**
+ * Booking row flattened with the booker and item columns needed for {@link BookingResponseDto}.
+ */
+public record BookingView(Long id,
+                          LocalDateTime start,
+                          LocalDateTime end,
+                          StatusBooking status,
+                          Long bookerId,
+                          String bookerName,
+                          String bookerEmail,
+                          Long itemId,
+                          String itemName,
+                          String itemDescription,
+                          Boolean itemAvailable,
+                          Long itemRequestId,
+                          Long ownerId) {
+}
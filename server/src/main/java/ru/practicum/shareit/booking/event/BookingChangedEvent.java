@@ -0,0 +1,30 @@
+package ru.practicum.shareit.booking.event;
+
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.StatusBooking;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published synchronously, inside the transaction, whenever a booking is created or its status changes.
+ */
+public record BookingChangedEvent(Long bookingId,
+                                  Long itemId,
+                                  Long ownerId,
+                                  Long bookerId,
+                                  StatusBooking status,
+                                  LocalDateTime start,
+                                  LocalDateTime end) {
+
+    public static BookingChangedEvent of(Booking booking) {
+        return new BookingChangedEvent(
+                booking.getId(),
+                booking.getItem().getId(),
+                booking.getItem().getOwner().getId(),
+                booking.getBooker().getId(),
+                booking.getStatus(),
+                booking.getStart(),
+                booking.getEnd()
+        );
+    }
+}
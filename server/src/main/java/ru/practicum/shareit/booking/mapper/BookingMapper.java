@@ -2,13 +2,20 @@ package ru.practicum.shareit.booking.mapper;
 
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.dto.BookingView;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.StatusBooking;
+import ru.practicum.shareit.item.dto.BookingShortDto;
+import ru.practicum.shareit.item.dto.BookingShortView;
+import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
 
+import java.util.Collections;
+
 public class BookingMapper {
 
     public static Booking toBooking(BookingCreateDto dto, User booker, Item item) {
@@ -31,4 +38,31 @@ public class BookingMapper {
         dto.setItem(ItemMapper.toItemDto(booking.getItem()));
         return dto;
     }
+
+    public static BookingResponseDto toResponseDto(BookingView view) {
+        BookingResponseDto dto = new BookingResponseDto();
+        dto.setId(view.id());
+        dto.setStart(view.start());
+        dto.setEnd(view.end());
+        dto.setStatus(view.status());
+        dto.setBooker(new UserDto(view.bookerId(), view.bookerName(), view.bookerEmail()));
+        dto.setItem(ItemDto.builder()
+                .id(view.itemId())
+                .name(view.itemName())
+                .description(view.itemDescription())
+                .available(view.itemAvailable())
+                .comments(Collections.emptyList())
+                .requestId(view.itemRequestId())
+                .build());
+        return dto;
+    }
+
+    public static BookingShortDto toBookingShortDto(BookingShortView view) {
+        return new BookingShortDto(
+                view.id(),
+                view.bookerId(),
+                view.start(),
+                view.end()
+        );
+    }
 }
\ No newline at end of file
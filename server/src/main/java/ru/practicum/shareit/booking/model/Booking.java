@@ -36,4 +36,8 @@ public class Booking {
     @Enumerated(EnumType.STRING)
     @Column(nullable = false, length = 20)
     private StatusBooking status;
+
+    @Version
+    @Column(nullable = false)
+    private Long version;
 }
\ No newline at end of file
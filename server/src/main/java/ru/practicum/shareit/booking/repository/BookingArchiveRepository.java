@@ -0,0 +1,52 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.booking.dto.BookingInterval;
+import ru.practicum.shareit.booking.dto.BookingView;
+import ru.practicum.shareit.booking.model.BookingArchive;
+import ru.practicum.shareit.booking.model.StatusBooking;
+import ru.practicum.shareit.item.dto.BookingShortView;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Reads of archived bookings, used where a lookup in {@link BookingRepository} finds nothing. Every archived
+ * booking has ended, so the queries take no "now".
+ */
+@Repository
+public interface BookingArchiveRepository extends JpaRepository<BookingArchive, Long> {
+    String SELECT_VIEW = BookingRepository.VIEW_COLUMNS + "from BookingArchive b join b.booker u join b.item i ";
+
+    String SELECT_SHORT_VIEW = "select new ru.practicum.shareit.item.dto.BookingShortView(" +
+            "b.id, b.item.id, b.booker.id, b.start, b.end) from BookingArchive b ";
+
+    @Query(SELECT_VIEW + "where b.id = :id")
+    Optional<BookingView> findViewById(@Param("id") Long id);
+
+    boolean existsByBookerIdAndItemIdAndStatus(Long bookerId, Long itemId, StatusBooking status);
+
+    @Query("select new ru.practicum.shareit.booking.dto.BookingInterval(b.id, b.start, b.end) " +
+            "from BookingArchive b where b.item.id = :itemId " +
+            "and b.status in (ru.practicum.shareit.booking.model.StatusBooking.WAITING, " +
+            "ru.practicum.shareit.booking.model.StatusBooking.APPROVED) " +
+            "and b.start < :to and b.end > :from order by b.start")
+    List<BookingInterval> findIntervalsBetween(@Param("itemId") Long itemId,
+                                               @Param("from") LocalDateTime from,
+                                               @Param("to") LocalDateTime to);
+
+    @Query(SELECT_SHORT_VIEW + "where b.item.id = :itemId and b.status = ru.practicum.shareit.booking.model.StatusBooking.APPROVED " +
+            "order by b.end desc")
+    List<BookingShortView> findLastByItemId(@Param("itemId") Long itemId, Pageable page);
+
+    @Query(SELECT_SHORT_VIEW +
+            "where b.item.owner.id = :ownerId and b.status = ru.practicum.shareit.booking.model.StatusBooking.APPROVED " +
+            "and b.end = (select max(l.end) from BookingArchive l where l.item = b.item " +
+            "and l.status = ru.practicum.shareit.booking.model.StatusBooking.APPROVED)")
+    List<BookingShortView> findLastBookingsByOwnerId(@Param("ownerId") Long ownerId);
+}
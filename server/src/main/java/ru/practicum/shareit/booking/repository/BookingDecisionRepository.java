@@ -0,0 +1,15 @@
+package ru.practicum.shareit.booking.repository;
+
+import ru.practicum.shareit.booking.model.StatusBooking;
+
+import java.util.Map;
+import java.util.Set;
+
+public interface BookingDecisionRepository {
+    /**
+     * Moves every booking in {@code targets} that is still WAITING to its target status, bumping its version,
+     * and returns the ids this call changed. A booking missing from the result was decided by someone else
+     * first, even if it ended up in the same status.
+     */
+    Set<Long> decideEachIfWaiting(Map<Long, StatusBooking> targets);
+}
@@ -0,0 +1,85 @@
+package ru.practicum.shareit.booking.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import ru.practicum.shareit.booking.model.StatusBooking;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+
+/**
+ * Decides all bookings with one conditional UPDATE that returns the ids it changed, so the result does not
+ * depend on per-statement row counts. PostgreSQL joins the targets as a {@code VALUES} list and uses
+ * {@code RETURNING}; H2, which the tests run on, has neither, so there the same update picks the status with a
+ * {@code CASE} and is read through {@code FINAL TABLE}. Like a {@code clearAutomatically} bulk update, it
+ * flushes and clears the persistence context, so no managed booking keeps its stale version.
+ */
+public class BookingDecisionRepositoryImpl implements BookingDecisionRepository {
+    private static final String POSTGRESQL = "PostgreSQL";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    private volatile Boolean postgres;
+
+    @Override
+    public Set<Long> decideEachIfWaiting(Map<Long, StatusBooking> targets) {
+        if (targets.isEmpty()) {
+            return Set.of();
+        }
+        List<Map.Entry<Long, StatusBooking>> decisions = List.copyOf(targets.entrySet());
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        for (int i = 0; i < decisions.size(); i++) {
+            params.addValue("id" + i, decisions.get(i).getKey())
+                    .addValue("status" + i, decisions.get(i).getValue().name());
+        }
+        params.addValue("ids", targets.keySet());
+        String sql = isPostgres() ? postgresSql(decisions.size()) : h2Sql(decisions.size());
+
+        entityManager.flush();
+        List<Long> decided = jdbcTemplate.queryForList(sql, params, Long.class);
+        entityManager.clear();
+        return new HashSet<>(decided);
+    }
+
+    private static String postgresSql(int count) {
+        StringJoiner values = new StringJoiner(", ");
+        for (int i = 0; i < count; i++) {
+            values.add("(:id" + i + ", :status" + i + ")");
+        }
+        return "UPDATE bookings SET status = v.status, version = bookings.version + 1 " +
+                "FROM (VALUES " + values + ") AS v(id, status) " +
+                "WHERE bookings.id = v.id AND bookings.status = 'WAITING' " +
+                "RETURNING bookings.id";
+    }
+
+    private static String h2Sql(int count) {
+        StringBuilder status = new StringBuilder("CASE id");
+        for (int i = 0; i < count; i++) {
+            status.append(" WHEN :id").append(i).append(" THEN CAST(:status").append(i).append(" AS VARCHAR(20))");
+        }
+        status.append(" END");
+        return "SELECT id FROM FINAL TABLE (UPDATE bookings SET status = " + status + ", version = version + 1 " +
+                "WHERE id IN (:ids) AND status = 'WAITING')";
+    }
+
+    private boolean isPostgres() {
+        Boolean result = postgres;
+        if (result == null) {
+            result = POSTGRESQL.equals(jdbcTemplate.getJdbcTemplate().execute(
+                    (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName()));
+            postgres = result;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,45 @@
+package ru.practicum.shareit.booking.repository;
+
+import lombok.Builder;
+import org.springframework.data.domain.Sort;
+import ru.practicum.shareit.booking.model.BookingState;
+
+import java.time.LocalDateTime;
+
+/**
+ * Filter, order and page of a booking list, run by {@link BookingSearchRepository#findViews}.
+ * <p>
+ * Only {@code role} and {@code userId} are required. A null {@code state} means {@link BookingState#ALL},
+ * a null {@code direction} means newest first, and {@code now} defaults to the current time. {@code from} and
+ * {@code to} keep bookings intersecting [from, to). When {@code afterStart}/{@code afterId} are set, the page
+ * starts strictly after that (start, id) position in the chosen direction; otherwise it skips {@code offset} rows.
+ */
+@Builder(toBuilder = true)
+public record BookingQuery(Role role,
+                           Long userId,
+                           BookingState state,
+                           LocalDateTime now,
+                           Long itemId,
+                           LocalDateTime from,
+                           LocalDateTime to,
+                           Sort.Direction direction,
+                           LocalDateTime afterStart,
+                           Long afterId,
+                           int offset,
+                           int limit) {
+
+    public enum Role {
+        BOOKER("u.id"),
+        OWNER("i.owner.id");
+
+        private final String path;
+
+        Role(String path) {
+            this.path = path;
+        }
+
+        String path() {
+            return path;
+        }
+    }
+}
@@ -1,41 +1,121 @@
 package ru.practicum.shareit.booking.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.booking.dto.BookingInterval;
+import ru.practicum.shareit.booking.dto.BookingView;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.StatusBooking;
+import ru.practicum.shareit.item.dto.BookingShortView;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface BookingRepository extends JpaRepository<Booking, Long> {
-    List<Booking> findAllByBookerIdOrderByStartDesc(Long bookerId);
-
-    List<Booking> findAllByBookerIdAndStatusOrderByStartDesc(Long bookerId, StatusBooking status);
-
-    List<Booking> findAllByBookerIdAndStartBeforeAndEndAfterOrderByStartDesc(
-            Long bookerId, LocalDateTime now1, LocalDateTime now2);
-
-    List<Booking> findAllByBookerIdAndEndBeforeOrderByStartDesc(Long bookerId, LocalDateTime now);
-
-    List<Booking> findAllByBookerIdAndStartAfterOrderByStartDesc(Long bookerId, LocalDateTime now);
-
-    List<Booking> findAllByBookerIdAndItemIdOrderByEndDesc(Long bookerId, Long itemId);
-
-    List<Booking> findAllByItemOwnerIdOrderByStartDesc(Long ownerId);
-
-    List<Booking> findAllByItemOwnerIdAndStatusOrderByStartDesc(Long ownerId, StatusBooking status);
-
-    List<Booking> findAllByItemOwnerIdAndStartBeforeAndEndAfterOrderByStartDesc(
-            Long ownerId, LocalDateTime now1, LocalDateTime now2);
-
-    List<Booking> findAllByItemOwnerIdAndEndBeforeOrderByStartDesc(Long ownerId, LocalDateTime now);
-
-    List<Booking> findAllByItemOwnerIdAndStartAfterOrderByStartDesc(Long ownerId, LocalDateTime now);
-
-    List<Booking> findFirst1ByItemIdAndEndBeforeOrderByEndDesc(Long itemId, LocalDateTime now);
-
-    List<Booking> findFirst1ByItemIdAndStartAfterOrderByStartAsc(Long itemId, LocalDateTime now);
-
-}
\ No newline at end of file
+public interface BookingRepository extends JpaRepository<Booking, Long>, BookingSearchRepository,
+        BookingDecisionRepository {
+    String VIEW_COLUMNS = "select new ru.practicum.shareit.booking.dto.BookingView(" +
+            "b.id, b.start, b.end, b.status, u.id, u.name, u.email, " +
+            "i.id, i.name, i.description, i.available, i.request.id, i.owner.id) ";
+
+    String SELECT_VIEW = VIEW_COLUMNS + "from Booking b join b.booker u join b.item i ";
+
+    String SELECT_SHORT_VIEW = "select new ru.practicum.shareit.item.dto.BookingShortView(" +
+            "b.id, b.item.id, b.booker.id, b.start, b.end) from Booking b ";
+
+    /**
+     * Loads the booking for a status change together with the booker, item and item owner the change needs.
+     */
+    @Query("select b from Booking b join fetch b.booker join fetch b.item i join fetch i.owner where b.id = :id")
+    Optional<Booking> findWithItemAndBookerById(@Param("id") Long id);
+
+    @Query("select b from Booking b join fetch b.booker join fetch b.item i join fetch i.owner where b.id in :ids")
+    List<Booking> findAllWithItemAndBookerByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Moves the booking from WAITING to {@code status}, bumping its version. Returns 0 when the booking is no
+     * longer waiting, which is how a concurrent decision that committed first shows up.
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("update Booking b set b.status = :status, b.version = b.version + 1 " +
+            "where b.id = :id and b.status = ru.practicum.shareit.booking.model.StatusBooking.WAITING")
+    int decideIfWaiting(@Param("id") Long id, @Param("status") StatusBooking status);
+
+    @Query(SELECT_VIEW + "where b.id = :id")
+    Optional<BookingView> findViewById(@Param("id") Long id);
+
+    /**
+     * Whether a waiting or approved booking of the item intersects the half-open interval [start, end).
+     */
+    @Query("select count(b) > 0 from Booking b where b.item.id = :itemId " +
+            "and b.status in (ru.practicum.shareit.booking.model.StatusBooking.WAITING, " +
+            "ru.practicum.shareit.booking.model.StatusBooking.APPROVED) " +
+            "and b.start < :end and b.end > :start")
+    boolean existsOverlapping(@Param("itemId") Long itemId,
+                              @Param("start") LocalDateTime start,
+                              @Param("end") LocalDateTime end);
+
+    /**
+     * Intervals of waiting and approved bookings of the item that have not ended by {@code since}, ordered by
+     * start.
+     */
+    @Query("select new ru.practicum.shareit.booking.dto.BookingInterval(b.id, b.start, b.end) " +
+            "from Booking b where b.item.id = :itemId " +
+            "and b.status in (ru.practicum.shareit.booking.model.StatusBooking.WAITING, " +
+            "ru.practicum.shareit.booking.model.StatusBooking.APPROVED) " +
+            "and b.end > :since order by b.start")
+    List<BookingInterval> findActiveIntervals(@Param("itemId") Long itemId, @Param("since") LocalDateTime since);
+
+    /**
+     * Intervals of waiting and approved bookings of the item that intersect [from, to), ordered by start.
+     */
+    @Query("select new ru.practicum.shareit.booking.dto.BookingInterval(b.id, b.start, b.end) " +
+            "from Booking b where b.item.id = :itemId " +
+            "and b.status in (ru.practicum.shareit.booking.model.StatusBooking.WAITING, " +
+            "ru.practicum.shareit.booking.model.StatusBooking.APPROVED) " +
+            "and b.start < :to and b.end > :from order by b.start")
+    List<BookingInterval> findIntervalsBetween(@Param("itemId") Long itemId,
+                                               @Param("from") LocalDateTime from,
+                                               @Param("to") LocalDateTime to);
+
+    boolean existsByBookerIdAndItemIdAndStatusAndEndBefore(
+            Long bookerId, Long itemId, StatusBooking status, LocalDateTime now);
+
+    @Query(SELECT_SHORT_VIEW + "where b.item.id = :itemId and b.status = ru.practicum.shareit.booking.model.StatusBooking.APPROVED " +
+            "and b.end < :now order by b.end desc")
+    List<BookingShortView> findLastByItemId(@Param("itemId") Long itemId,
+                                            @Param("now") LocalDateTime now,
+                                            Pageable page);
+
+    /**
+     * End of the earliest running or upcoming approved booking of the item, the next moment its last booking
+     * changes.
+     */
+    @Query("select min(b.end) from Booking b where b.item.id = :itemId " +
+            "and b.status = ru.practicum.shareit.booking.model.StatusBooking.APPROVED and b.end > :now")
+    LocalDateTime findEarliestEndAfter(@Param("itemId") Long itemId, @Param("now") LocalDateTime now);
+
+    @Query(SELECT_SHORT_VIEW + "where b.item.id = :itemId and b.status = ru.practicum.shareit.booking.model.StatusBooking.APPROVED " +
+            "and b.start > :now order by b.start asc")
+    List<BookingShortView> findNextByItemId(@Param("itemId") Long itemId,
+                                            @Param("now") LocalDateTime now,
+                                            Pageable page);
+
+    @Query(SELECT_SHORT_VIEW +
+            "where b.item.owner.id = :ownerId and b.status = ru.practicum.shareit.booking.model.StatusBooking.APPROVED and b.end < :now " +
+            "and b.end = (select max(l.end) from Booking l where l.item = b.item " +
+            "and l.status = ru.practicum.shareit.booking.model.StatusBooking.APPROVED and l.end < :now)")
+    List<BookingShortView> findLastBookingsByOwnerId(@Param("ownerId") Long ownerId, @Param("now") LocalDateTime now);
+
+    @Query(SELECT_SHORT_VIEW +
+            "where b.item.owner.id = :ownerId and b.status = ru.practicum.shareit.booking.model.StatusBooking.APPROVED and b.start > :now " +
+            "and b.start = (select min(n.start) from Booking n where n.item = b.item " +
+            "and n.status = ru.practicum.shareit.booking.model.StatusBooking.APPROVED and n.start > :now)")
+    List<BookingShortView> findNextBookingsByOwnerId(@Param("ownerId") Long ownerId, @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,16 @@
+package ru.practicum.shareit.booking.repository;
+
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
+import ru.practicum.shareit.booking.dto.BookingView;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface BookingSearchRepository {
+    List<BookingView> findViews(BookingQuery query);
+
+    /**
+     * Counts the bookings of the user in every state at {@code now}, archived ones included.
+     */
+    BookingSummaryDto countByState(BookingQuery.Role role, Long userId, LocalDateTime now);
+}
@@ -0,0 +1,241 @@
+package ru.practicum.shareit.booking.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
+import ru.practicum.shareit.booking.dto.BookingView;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.model.StatusBooking;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Builds booking list queries from a {@link BookingQuery}. Every filter adds one predicate to the same
+ * {@link BookingRepository#SELECT_VIEW} projection, and lists are ordered by (start, id), which the
+ * (booker_id | item_id, start_time, id) indexes serve together with the keyset predicate.
+ * <p>
+ * Bookings that ended before the archive horizon may have moved to {@code bookings_archive}. When a page can
+ * reach past the horizon, the same query runs against {@link BookingArchiveRepository#SELECT_VIEW} and both
+ * results are merged in (start, id) order. A newest-first page that fills up with live bookings starting after
+ * the horizon never touches the archive. A page further down first looks up the (start, id) of the row just
+ * before it in the merged order, then reads both tables from that position with the keyset predicate.
+ * <p>
+ * Offset pages are not constant cost: the lookup still walks and sorts every earlier row of both tables, it
+ * just returns one narrow row instead of whole pages. Only a cursor page ({@code afterStart}/{@code afterId})
+ * costs the same at any depth, which is what clients paging deep should use.
+ */
+public class BookingSearchRepositoryImpl implements BookingSearchRepository {
+    /**
+     * Dialects without FILTER get it emulated as CASE, which needs the parameter type spelled out.
+     */
+    private static final String NOW = "cast(:now as LocalDateTime)";
+    private static final String COUNT_BY_STATE = "select new ru.practicum.shareit.booking.dto.BookingSummaryDto(" +
+            "count(*), " +
+            "count(*) filter (where t.startTime < " + NOW + " and t.endTime > " + NOW + "), " +
+            "count(*) filter (where t.endTime < " + NOW + "), " +
+            "count(*) filter (where t.startTime > " + NOW + "), " +
+            "count(*) filter (where t.status = ru.practicum.shareit.booking.model.StatusBooking.WAITING), " +
+            "count(*) filter (where t.status = ru.practicum.shareit.booking.model.StatusBooking.REJECTED)) ";
+    private static final String SELECT_INTERVAL = "select b.start as startTime, b.end as endTime, b.status as status ";
+    private static final String SELECT_POSITION = "select b.start as startTime, b.id as bookingId ";
+
+    private static final Comparator<BookingView> BY_START_AND_ID =
+            Comparator.comparing(BookingView::start).thenComparing(BookingView::id);
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${shareit.booking-archive.months}")
+    private int archiveMonths;
+
+    @Override
+    public List<BookingView> findViews(BookingQuery query) {
+        LocalDateTime now = query.now() != null ? query.now() : LocalDateTime.now();
+        BookingState state = query.state() != null ? query.state() : BookingState.ALL;
+        LocalDateTime horizon = now.minusMonths(archiveMonths);
+
+        if (!mayReachArchive(query, state, horizon)) {
+            return select(BookingRepository.SELECT_VIEW, query, state, now, query.offset(), query.limit());
+        }
+
+        boolean ascending = query.direction() == Sort.Direction.ASC;
+        Comparator<BookingView> order = ascending ? BY_START_AND_ID : BY_START_AND_ID.reversed();
+        if (!ascending) {
+            List<BookingView> page = select(BookingRepository.SELECT_VIEW, query, state, now,
+                    query.offset(), query.limit());
+            if (page.size() == query.limit() && !page.getLast().start().isBefore(horizon)) {
+                return page;
+            }
+            if (query.offset() == 0) {
+                return merge(page, select(BookingArchiveRepository.SELECT_VIEW, query, state, now, 0, query.limit()),
+                        order, query.limit());
+            }
+        } else if (query.offset() == 0) {
+            return merge(select(BookingRepository.SELECT_VIEW, query, state, now, 0, query.limit()),
+                    select(BookingArchiveRepository.SELECT_VIEW, query, state, now, 0, query.limit()),
+                    order, query.limit());
+        }
+
+        // A deeper page: find the row just before it in the merged order, then seek past that row on both sides,
+        // so neither table has to return the skipped rows.
+        Object[] previous = positionAt(query, state, now, query.offset() - 1);
+        if (previous == null) {
+            return List.of();
+        }
+        return findViews(query.toBuilder()
+                .now(now)
+                .afterStart((LocalDateTime) previous[0])
+                .afterId((Long) previous[1])
+                .offset(0)
+                .build());
+    }
+
+    /**
+     * One pass over the user's live and archived bookings, combined with {@code union all} so that both tables are
+     * counted in a single statement, counts every state by the same predicates {@link #findViews} filters by.
+     */
+    @Override
+    public BookingSummaryDto countByState(BookingQuery.Role role, Long userId, LocalDateTime now) {
+        String owned = "join b.booker u join b.item i where " + role.path() + " = :userId";
+        return entityManager.createQuery(COUNT_BY_STATE + "from (" +
+                                SELECT_INTERVAL + "from Booking b " + owned + " union all " +
+                                SELECT_INTERVAL + "from BookingArchive b " + owned + ") t",
+                        BookingSummaryDto.class)
+                .setParameter("userId", userId)
+                .setParameter("now", now)
+                .getSingleResult();
+    }
+
+    /**
+     * Archived bookings ended before the horizon, so they can never be current or future, never end after
+     * {@code from}, and in ascending order they all precede a cursor positioned after the horizon.
+     */
+    private static boolean mayReachArchive(BookingQuery query, BookingState state, LocalDateTime horizon) {
+        if (state == BookingState.CURRENT || state == BookingState.FUTURE) {
+            return false;
+        }
+        if (query.from() != null && !query.from().isBefore(horizon)) {
+            return false;
+        }
+        return query.direction() != Sort.Direction.ASC
+                || query.afterStart() == null
+                || query.afterStart().isBefore(horizon);
+    }
+
+    private List<BookingView> select(String selectView, BookingQuery query, BookingState state, LocalDateTime now,
+                                     int offset, int limit) {
+        Map<String, Object> parameters = new HashMap<>();
+        String jpql = selectView + where(query, state, now, parameters) + orderBy(query, "b.start", "b.id");
+
+        TypedQuery<BookingView> typed = entityManager.createQuery(jpql, BookingView.class);
+        parameters.forEach(typed::setParameter);
+        return typed.setFirstResult(offset)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    /**
+     * Returns the (start, id) of the row at {@code index} of the merged live and archived list, or {@code null}
+     * when the list is shorter. A single statement sees both tables consistently, so no row is counted twice.
+     * It is O(index): the database still skips every earlier row.
+     */
+    private Object[] positionAt(BookingQuery query, BookingState state, LocalDateTime now, int index) {
+        Map<String, Object> parameters = new HashMap<>();
+        String where = where(query, state, now, parameters);
+        String jpql = "select t.startTime, t.bookingId from (" +
+                SELECT_POSITION + "from Booking b join b.booker u join b.item i " + where + " union all " +
+                SELECT_POSITION + "from BookingArchive b join b.booker u join b.item i " + where + ") t" +
+                orderBy(query, "t.startTime", "t.bookingId");
+
+        TypedQuery<Object[]> typed = entityManager.createQuery(jpql, Object[].class);
+        parameters.forEach(typed::setParameter);
+        List<Object[]> position = typed.setFirstResult(index)
+                .setMaxResults(1)
+                .getResultList();
+        return position.isEmpty() ? null : position.getFirst();
+    }
+
+    private static String where(BookingQuery query, BookingState state, LocalDateTime now,
+                                Map<String, Object> parameters) {
+        StringBuilder jpql = new StringBuilder("where ").append(query.role().path()).append(" = :userId");
+        parameters.put("userId", query.userId());
+        switch (state) {
+            case ALL -> {
+            }
+            case CURRENT -> {
+                jpql.append(" and b.start < :now and b.end > :now");
+                parameters.put("now", now);
+            }
+            case PAST -> {
+                jpql.append(" and b.end < :now");
+                parameters.put("now", now);
+            }
+            case FUTURE -> {
+                jpql.append(" and b.start > :now");
+                parameters.put("now", now);
+            }
+            case WAITING, REJECTED -> {
+                jpql.append(" and b.status = :status");
+                parameters.put("status", StatusBooking.valueOf(state.name()));
+            }
+        }
+
+        if (query.itemId() != null) {
+            jpql.append(" and i.id = :itemId");
+            parameters.put("itemId", query.itemId());
+        }
+        if (query.from() != null) {
+            jpql.append(" and b.end > :from");
+            parameters.put("from", query.from());
+        }
+        if (query.to() != null) {
+            jpql.append(" and b.start < :to");
+            parameters.put("to", query.to());
+        }
+
+        boolean ascending = query.direction() == Sort.Direction.ASC;
+        if (query.afterStart() != null && query.afterId() != null) {
+            jpql.append(ascending ? " and (b.start, b.id) > " : " and (b.start, b.id) < ")
+                    .append("(:afterStart, :afterId)");
+            parameters.put("afterStart", query.afterStart());
+            parameters.put("afterId", query.afterId());
+        }
+        return jpql.toString();
+    }
+
+    private static String orderBy(BookingQuery query, String start, String id) {
+        String direction = query.direction() == Sort.Direction.ASC ? " asc" : " desc";
+        return " order by " + start + direction + ", " + id + direction;
+    }
+
+    /**
+     * Merges two sorted lists and returns the first {@code limit} rows of the result. A booking archived between
+     * the two selects can show up in both, and is kept once.
+     */
+    private static List<BookingView> merge(List<BookingView> live, List<BookingView> archived,
+                                           Comparator<BookingView> order, int limit) {
+        List<BookingView> merged = new ArrayList<>(Math.min(limit, live.size() + archived.size()));
+        Set<Long> seen = new HashSet<>();
+        int l = 0;
+        int a = 0;
+        while (merged.size() < limit && (l < live.size() || a < archived.size())) {
+            BookingView next = a == archived.size()
+                    || (l < live.size() && order.compare(live.get(l), archived.get(a)) <= 0)
+                    ? live.get(l++) : archived.get(a++);
+            if (seen.add(next.id())) {
+                merged.add(next);
+            }
+        }
+        return merged;
+    }
+}
@@ -1,7 +1,11 @@
 package ru.practicum.shareit.booking.service;
 
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
+import ru.practicum.shareit.pagination.CursorPage;
 
 import java.util.List;
 
@@ -10,9 +14,17 @@ public interface BookingService {
 
     BookingResponseDto approveBooking(Long ownerId, Long bookingId, Boolean approved);
 
+    List<BookingDecisionResultDto> approveBookings(Long ownerId, List<BookingDecisionDto> decisions);
+
     BookingResponseDto getBookingById(Long userId, Long bookingId);
 
-    List<BookingResponseDto> getBookingsByBooker(Long bookerId, String state);
+    CursorPage<BookingResponseDto> getBookingsByBooker(Long bookerId, String state,
+                                                       Integer from, Integer size, String cursor);
+
+    CursorPage<BookingResponseDto> getBookingsByOwner(Long ownerId, String state,
+                                                      Integer from, Integer size, String cursor);
+
+    BookingSummaryDto getBookingSummaryByBooker(Long bookerId);
 
-    List<BookingResponseDto> getBookingsByOwner(Long ownerId, String state);
-}
\ No newline at end of file
+    BookingSummaryDto getBookingSummaryByOwner(Long ownerId);
+}
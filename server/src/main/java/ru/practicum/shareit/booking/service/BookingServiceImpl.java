@@ -1,30 +1,57 @@
 package ru.practicum.shareit.booking.service;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
+import ru.practicum.shareit.booking.dto.BookingView;
+import ru.practicum.shareit.booking.event.BookingChangedEvent;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.model.StatusBooking;
+import ru.practicum.shareit.booking.repository.BookingArchiveRepository;
+import ru.practicum.shareit.booking.repository.BookingQuery;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.exception.*;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.pagination.CursorCodec;
+import ru.practicum.shareit.pagination.CursorPage;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class BookingServiceImpl implements BookingService {
+    /**
+     * The exclusion constraint on {@code booking_slots} in schema.sql that forbids intersecting waiting/approved
+     * bookings of one item, whichever partitions they start in.
+     */
+    private static final String OVERLAP_CONSTRAINT = "ex_bookings_no_overlap";
+
     private final BookingRepository bookingRepository;
+    private final BookingArchiveRepository bookingArchiveRepository;
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional
@@ -42,39 +69,120 @@ public class BookingServiceImpl implements BookingService {
         if (item.getOwner().getId().equals(bookerId)) {
             throw new OwnerNotFoundException("Owner cannot book own item");
         }
+        if (!createDto.getStart().isBefore(createDto.getEnd())) {
+            throw new BadRequestException("Booking end must be after its start");
+        }
+        if (bookingRepository.existsOverlapping(item.getId(), createDto.getStart(), createDto.getEnd())) {
+            throw new BookingOverlapException("Item " + item.getId() + " is already booked for this period");
+        }
+
         Booking booking = BookingMapper.toBooking(createDto, booker, item);
-        Booking saved = bookingRepository.save(booking);
+        Booking saved;
+        try {
+            saved = bookingRepository.saveAndFlush(booking);
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent booking won the race between the pre-check and the insert.
+            if (isOverlapViolation(e)) {
+                throw new BookingOverlapException("Item " + item.getId() + " is already booked for this period");
+            }
+            throw e;
+        }
+        eventPublisher.publishEvent(BookingChangedEvent.of(saved));
         return BookingMapper.toResponseDto(saved);
     }
 
     @Override
     @Transactional
     public BookingResponseDto approveBooking(Long ownerId, Long bookingId, Boolean approved) {
-        Booking booking = bookingRepository.findById(bookingId)
+        Booking booking = bookingRepository.findWithItemAndBookerById(bookingId)
                 .orElseThrow(() -> new BadRequestException("Booking not found: " + bookingId));
 
         if (!booking.getItem().getOwner().getId().equals(ownerId)) {
             throw new OwnerNotFoundException("Only owner can approve/reject booking");
         }
 
+        // A booking decided before this read and one decided between the read and the update are the same
+        // conflict to the client, so both get 409.
         if (booking.getStatus() != StatusBooking.WAITING) {
-            throw new BookingAlreadyApprovedException("Booking already processed: " + booking.getStatus());
+            throw new BookingStatusConflictException("Booking already processed: " + booking.getStatus());
         }
 
-        booking.setStatus(approved ? StatusBooking.APPROVED : StatusBooking.REJECTED);
-        Booking updated = bookingRepository.save(booking);
-        return BookingMapper.toResponseDto(updated);
+        StatusBooking status = approved ? StatusBooking.APPROVED : StatusBooking.REJECTED;
+        if (bookingRepository.decideIfWaiting(bookingId, status) == 0) {
+            throw new BookingStatusConflictException("Booking already processed");
+        }
+        booking.setStatus(status);
+        booking.setVersion(booking.getVersion() + 1);
+        eventPublisher.publishEvent(BookingChangedEvent.of(booking));
+        return BookingMapper.toResponseDto(booking);
+    }
+
+    /**
+     * Validates every decision against one fetch-joined load and applies the valid ones with one conditional
+     * update that returns the ids it changed. It only touches bookings that are still waiting, so a booking a
+     * concurrent request decided first, even to the same status, is reported as already processed and gets no
+     * event here.
+     */
+    @Override
+    @Transactional
+    public List<BookingDecisionResultDto> approveBookings(Long ownerId, List<BookingDecisionDto> decisions) {
+        Set<Long> ids = decisions.stream()
+                .map(BookingDecisionDto::getBookingId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, Booking> bookings = bookingRepository.findAllWithItemAndBookerByIdIn(ids).stream()
+                .collect(Collectors.toMap(Booking::getId, Function.identity()));
+
+        BookingDecisionResultDto[] results = new BookingDecisionResultDto[decisions.size()];
+        Map<Long, Integer> positions = new HashMap<>();
+        Map<Long, StatusBooking> targets = new HashMap<>();
+        for (int i = 0; i < decisions.size(); i++) {
+            BookingDecisionDto decision = decisions.get(i);
+            Long bookingId = decision.getBookingId();
+            Booking booking = bookings.get(bookingId);
+            if (bookingId == null || decision.getApproved() == null) {
+                results[i] = BookingDecisionResultDto.failed(bookingId, "Booking id and approved are required");
+            } else if (positions.containsKey(bookingId)) {
+                results[i] = BookingDecisionResultDto.failed(bookingId, "Duplicate decision for booking " + bookingId);
+            } else if (booking == null) {
+                results[i] = BookingDecisionResultDto.failed(bookingId, "Booking not found: " + bookingId);
+            } else if (!booking.getItem().getOwner().getId().equals(ownerId)) {
+                results[i] = BookingDecisionResultDto.failed(bookingId, "Only owner can approve/reject booking");
+            } else if (booking.getStatus() != StatusBooking.WAITING) {
+                results[i] = BookingDecisionResultDto.failed(bookingId,
+                        "Booking already processed: " + booking.getStatus());
+            } else {
+                positions.put(bookingId, i);
+                targets.put(bookingId, decision.getApproved() ? StatusBooking.APPROVED : StatusBooking.REJECTED);
+            }
+        }
+
+        if (!targets.isEmpty()) {
+            Set<Long> decided = bookingRepository.decideEachIfWaiting(targets);
+            targets.forEach((bookingId, target) -> {
+                Booking booking = bookings.get(bookingId);
+                int position = positions.get(bookingId);
+                if (!decided.contains(bookingId)) {
+                    results[position] = BookingDecisionResultDto.failed(bookingId, "Booking already processed");
+                    return;
+                }
+                booking.setStatus(target);
+                booking.setVersion(booking.getVersion() + 1);
+                eventPublisher.publishEvent(BookingChangedEvent.of(booking));
+                results[position] = BookingDecisionResultDto.applied(BookingMapper.toResponseDto(booking));
+            });
+        }
+        return Arrays.asList(results);
     }
 
     @Override
     @Transactional(readOnly = true)
     public BookingResponseDto getBookingById(Long userId, Long bookingId) {
-        Booking booking = bookingRepository.findById(bookingId)
+        BookingView booking = bookingRepository.findViewById(bookingId)
+                .or(() -> bookingArchiveRepository.findViewById(bookingId))
                 .orElseThrow(() -> new BookingNotFoundException("Booking not found: " + bookingId));
 
-        Long ownerId = booking.getItem().getOwner().getId();
-        Long bookerId = booking.getBooker().getId();
-        if (!userId.equals(ownerId) && !userId.equals(bookerId)) {
+        if (!userId.equals(booking.ownerId()) && !userId.equals(booking.bookerId())) {
             throw new OwnerNotFoundException("Access denied");
         }
         return BookingMapper.toResponseDto(booking);
@@ -82,51 +190,65 @@ public class BookingServiceImpl implements BookingService {
 
     @Override
     @Transactional(readOnly = true)
-    public List<BookingResponseDto> getBookingsByBooker(Long bookerId, String state) {
-        userRepository.findById(bookerId)
-                .orElseThrow(() -> new UserNotFoundException("User not found: " + bookerId));
-        LocalDateTime now = LocalDateTime.now();
-
-        List<Booking> bookings = switch (state.toUpperCase()) {
-            case "ALL" -> bookingRepository.findAllByBookerIdOrderByStartDesc(bookerId);
-            case "CURRENT" -> bookingRepository.findAllByBookerIdAndStartBeforeAndEndAfterOrderByStartDesc(
-                    bookerId, now, now);
-            case "PAST" -> bookingRepository.findAllByBookerIdAndEndBeforeOrderByStartDesc(bookerId, now);
-            case "FUTURE" -> bookingRepository.findAllByBookerIdAndStartAfterOrderByStartDesc(bookerId, now);
-            case "WAITING" ->
-                    bookingRepository.findAllByBookerIdAndStatusOrderByStartDesc(bookerId, StatusBooking.WAITING);
-            case "REJECTED" ->
-                    bookingRepository.findAllByBookerIdAndStatusOrderByStartDesc(bookerId, StatusBooking.REJECTED);
-            default -> throw new BadRequestException("Unknown state: " + state);
-        };
-
-        return bookings.stream()
-                .map(BookingMapper::toResponseDto)
-                .collect(Collectors.toList());
+    public CursorPage<BookingResponseDto> getBookingsByBooker(Long bookerId, String state,
+                                                            Integer from, Integer size, String cursor) {
+        if (!userRepository.existsById(bookerId)) {
+            throw new UserNotFoundException("User not found: " + bookerId);
+        }
+        return findBookings(BookingQuery.Role.BOOKER, bookerId, state, from, size, cursor);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<BookingResponseDto> getBookingsByOwner(Long ownerId, String state) {
-        userRepository.findById(ownerId)
-                .orElseThrow(() -> new UserNotFoundException("User not found: " + ownerId));
-        LocalDateTime now = LocalDateTime.now();
-
-        List<Booking> bookings = switch (state.toUpperCase()) {
-            case "ALL" -> bookingRepository.findAllByItemOwnerIdOrderByStartDesc(ownerId);
-            case "CURRENT" -> bookingRepository.findAllByItemOwnerIdAndStartBeforeAndEndAfterOrderByStartDesc(
-                    ownerId, now, now);
-            case "PAST" -> bookingRepository.findAllByItemOwnerIdAndEndBeforeOrderByStartDesc(ownerId, now);
-            case "FUTURE" -> bookingRepository.findAllByItemOwnerIdAndStartAfterOrderByStartDesc(ownerId, now);
-            case "WAITING" ->
-                    bookingRepository.findAllByItemOwnerIdAndStatusOrderByStartDesc(ownerId, StatusBooking.WAITING);
-            case "REJECTED" ->
-                    bookingRepository.findAllByItemOwnerIdAndStatusOrderByStartDesc(ownerId, StatusBooking.REJECTED);
-            default -> throw new BadRequestException("Unknown state: " + state);
-        };
-
-        return bookings.stream()
-                .map(BookingMapper::toResponseDto)
-                .collect(Collectors.toList());
+    public CursorPage<BookingResponseDto> getBookingsByOwner(Long ownerId, String state,
+                                                           Integer from, Integer size, String cursor) {
+        if (!userRepository.existsById(ownerId)) {
+            throw new UserNotFoundException("User not found: " + ownerId);
+        }
+        return findBookings(BookingQuery.Role.OWNER, ownerId, state, from, size, cursor);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public BookingSummaryDto getBookingSummaryByBooker(Long bookerId) {
+        if (!userRepository.existsById(bookerId)) {
+            throw new UserNotFoundException("User not found: " + bookerId);
+        }
+        return bookingRepository.countByState(BookingQuery.Role.BOOKER, bookerId, LocalDateTime.now());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public BookingSummaryDto getBookingSummaryByOwner(Long ownerId) {
+        if (!userRepository.existsById(ownerId)) {
+            throw new UserNotFoundException("User not found: " + ownerId);
+        }
+        return bookingRepository.countByState(BookingQuery.Role.OWNER, ownerId, LocalDateTime.now());
+    }
+
+    private static boolean isOverlapViolation(DataIntegrityViolationException e) {
+        String message = NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+        return message != null && message.contains(OVERLAP_CONSTRAINT);
+    }
+
+    private CursorPage<BookingResponseDto> findBookings(BookingQuery.Role role, Long userId, String state,
+                                                        Integer from, Integer size, String cursor) {
+        BookingQuery.BookingQueryBuilder query = BookingQuery.builder()
+                .role(role)
+                .userId(userId)
+                .state(BookingState.from(state))
+                .now(LocalDateTime.now())
+                .limit(size);
+        if (cursor == null) {
+            query.offset(from);
+        } else {
+            String[] position = CursorCodec.decode(cursor, 2);
+            query.afterStart(CursorCodec.parseDateTime(position[0], cursor))
+                    .afterId(CursorCodec.parseLong(position[1], cursor));
+        }
+
+        return CursorPage.of(bookingRepository.findViews(query.build()), size,
+                        b -> CursorCodec.encode(b.start(), b.id()))
+                .map(BookingMapper::toResponseDto);
     }
-}
\ No newline at end of file
+}
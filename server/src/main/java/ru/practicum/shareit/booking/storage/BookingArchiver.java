@@ -0,0 +1,81 @@
+package ru.practicum.shareit.booking.storage;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Moves bookings that ended more than {@code shareit.booking-archive.months} ago from {@code bookings} to
+ * {@code bookings_archive}. Each batch is copied and deleted in its own transaction, so a run never holds
+ * locks on more than one batch and can be interrupted at any point without losing or duplicating rows.
+ */
+@Slf4j
+@Component
+public class BookingArchiver {
+    private static final String SELECT_EXPIRED_SQL = "SELECT id FROM bookings WHERE end_time < :cutoff " +
+            "ORDER BY end_time, id LIMIT :limit";
+    private static final String COPY_SQL = "INSERT INTO bookings_archive " +
+            "(id, start_time, end_time, item_id, booker_id, status) " +
+            "SELECT id, start_time, end_time, item_id, booker_id, status FROM bookings WHERE id IN (:ids)";
+    private static final String DELETE_SQL = "DELETE FROM bookings WHERE id IN (:ids)";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int months;
+    private final int batchSize;
+
+    public BookingArchiver(NamedParameterJdbcTemplate jdbcTemplate,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${shareit.booking-archive.months}") int months,
+                           @Value("${shareit.booking-archive.batch-size}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.months = months;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(cron = "${shareit.booking-archive.cron}")
+    public void archiveExpired() {
+        try {
+            int moved = archiveEndedBefore(LocalDateTime.now().minusMonths(months));
+            log.info("Archived {} bookings", moved);
+        } catch (DataAccessException e) {
+            log.warn("Booking archiving stopped, the remaining bookings are left for the next run", e);
+        }
+    }
+
+    /**
+     * Archives every booking that ended before {@code cutoff} and returns how many were moved.
+     */
+    public int archiveEndedBefore(LocalDateTime cutoff) {
+        int total = 0;
+        int moved;
+        do {
+            moved = transactionTemplate.execute(status -> archiveBatch(cutoff));
+            total += moved;
+        } while (moved == batchSize);
+        return total;
+    }
+
+    private int archiveBatch(LocalDateTime cutoff) {
+        List<Long> ids = jdbcTemplate.queryForList(SELECT_EXPIRED_SQL, new MapSqlParameterSource()
+                .addValue("cutoff", cutoff)
+                .addValue("limit", batchSize), Long.class);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        MapSqlParameterSource batch = new MapSqlParameterSource("ids", ids);
+        jdbcTemplate.update(COPY_SQL, batch);
+        jdbcTemplate.update(DELETE_SQL, batch);
+        return ids.size();
+    }
+}
@@ -0,0 +1,117 @@
+package ru.practicum.shareit.booking.storage;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * Keeps the monthly partitions of the PostgreSQL {@code bookings} table rolling: creates the partitions for
+ * the current month and {@code shareit.booking-partitions.months-ahead} months after it, and drops partitions
+ * that ended before the archive horizon once {@link BookingArchiver} has emptied them. Overlaps are guarded
+ * across partitions by {@code booking_slots}, so a new partition needs no constraint of its own.
+ * <p>
+ * A partition cannot be created while {@code bookings_default} holds rows in its range, so those rows are
+ * moved out first and inserted back once the partition exists, all in one transaction.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.booking-partitions.enabled", havingValue = "true")
+public class BookingPartitionManager {
+    private static final String PREFIX = "bookings_p";
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("uuuuMM");
+    private static final String LIST_PARTITIONS_SQL = "SELECT c.relname FROM pg_inherits h " +
+            "JOIN pg_class c ON c.oid = h.inhrelid " +
+            "WHERE h.inhparent = 'bookings'::regclass AND c.relname ~ '^bookings_p[0-9]{6}$'";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int monthsAhead;
+    private final int archiveMonths;
+
+    public BookingPartitionManager(JdbcTemplate jdbcTemplate,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${shareit.booking-partitions.months-ahead}") int monthsAhead,
+                                   @Value("${shareit.booking-archive.months}") int archiveMonths) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.monthsAhead = monthsAhead;
+        this.archiveMonths = archiveMonths;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${shareit.booking-partitions.cron}")
+    public void maintain() {
+        YearMonth current = YearMonth.now();
+        for (int i = 0; i <= monthsAhead; i++) {
+            createIfMissing(current.plusMonths(i));
+        }
+        dropArchived(YearMonth.now().minusMonths(archiveMonths));
+    }
+
+    private void createIfMissing(YearMonth month) {
+        String name = PREFIX + month.format(SUFFIX);
+        LocalDate from = month.atDay(1);
+        LocalDate to = month.plusMonths(1).atDay(1);
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                if (jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, name)) {
+                    return;
+                }
+                jdbcTemplate.execute("LOCK TABLE bookings IN ACCESS EXCLUSIVE MODE");
+                int moved = jdbcTemplate.update("CREATE TEMPORARY TABLE bookings_moving AS " +
+                        "WITH moved AS (DELETE FROM bookings_default " +
+                        "WHERE start_time >= ? AND start_time < ? RETURNING *) " +
+                        "SELECT * FROM moved", from, to);
+                jdbcTemplate.execute("CREATE TABLE " + name + " PARTITION OF bookings " +
+                        "FOR VALUES FROM ('" + from + "') TO ('" + to + "')");
+                if (moved > 0) {
+                    jdbcTemplate.update("INSERT INTO bookings SELECT * FROM bookings_moving");
+                    log.info("Moved {} bookings from bookings_default to {}", moved, name);
+                }
+                jdbcTemplate.execute("DROP TABLE bookings_moving");
+            });
+        } catch (DataAccessException e) {
+            log.error("Could not create booking partition {}", name, e);
+        }
+    }
+
+    /**
+     * Drops partitions whose whole range lies before the month of {@code horizon}. A partition still holding
+     * a booking that ends after the horizon is kept until the archiver moves it.
+     */
+    private void dropArchived(YearMonth horizon) {
+        List<String> partitions = jdbcTemplate.queryForList(LIST_PARTITIONS_SQL, String.class);
+        for (String name : partitions) {
+            YearMonth month = YearMonth.parse(name.substring(PREFIX.length()), SUFFIX);
+            if (!month.isBefore(horizon)) {
+                continue;
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    jdbcTemplate.execute("LOCK TABLE " + name + " IN ACCESS EXCLUSIVE MODE");
+                    Boolean empty = jdbcTemplate.queryForObject(
+                            "SELECT NOT EXISTS (SELECT 1 FROM " + name + ")", Boolean.class);
+                    if (Boolean.TRUE.equals(empty)) {
+                        jdbcTemplate.execute("DROP TABLE " + name);
+                        log.info("Dropped archived booking partition {}", name);
+                    }
+                });
+            } catch (DataAccessException e) {
+                log.warn("Could not drop booking partition {}", name, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package ru.practicum.shareit.booking.stream;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.booking.dto.BookingStatusEventDto;
+import ru.practicum.shareit.booking.event.BookingChangedEvent;
+import ru.practicum.shareit.exception.UserNotFoundException;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Pushes booking status changes to subscribed users over server-sent events.
+ * <p>
+ * Each {@link BookingChangedEvent} is delivered after its transaction commits, to both the booker and the item
+ * owner, as a {@code booking} event carrying a {@link BookingStatusEventDto}. Emitters hold no request thread.
+ * Each subscriber has its own single virtual thread that sends in submission order, so a slow client never
+ * delays the committing request and never sees a booking's APPROVED before its WAITING. A periodic comment
+ * keeps idle connections open through proxies and detects clients that went away.
+ */
+@Slf4j
+@Component
+public class BookingEventStream {
+    private static final String EVENT_NAME = "booking";
+
+    private final UserRepository userRepository;
+    private final Duration timeout;
+    private final Map<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final ThreadFactory senderThreads = Thread.ofVirtual().name("booking-stream-", 0).factory();
+
+    public BookingEventStream(UserRepository userRepository,
+                              @Value("${shareit.booking-stream.timeout}") Duration timeout) {
+        this.userRepository = userRepository;
+        this.timeout = timeout;
+    }
+
+    public SseEmitter subscribe(Long userId) {
+        if (!userRepository.existsById(userId)) {
+            throw new UserNotFoundException("User not found: " + userId);
+        }
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        Subscriber subscriber = new Subscriber(emitter, Executors.newSingleThreadExecutor(senderThreads));
+        subscribers.compute(userId, (id, current) -> {
+            Set<Subscriber> updated = current != null ? current : ConcurrentHashMap.newKeySet();
+            updated.add(subscriber);
+            return updated;
+        });
+        Runnable remove = () -> unsubscribe(userId, subscriber);
+        emitter.onCompletion(remove);
+        emitter.onTimeout(remove);
+        emitter.onError(e -> remove.run());
+        send(userId, subscriber, SseEmitter.event().comment("connected"));
+        return emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookingChanged(BookingChangedEvent event) {
+        BookingStatusEventDto payload = BookingStatusEventDto.of(event);
+        Set<Long> recipients = new LinkedHashSet<>(List.of(event.bookerId(), event.ownerId()));
+        recipients.forEach(userId -> subscribers.getOrDefault(userId, Set.of()).forEach(subscriber ->
+                send(userId, subscriber, SseEmitter.event()
+                        .name(EVENT_NAME)
+                        .id(String.valueOf(event.bookingId()))
+                        .data(payload, MediaType.APPLICATION_JSON))));
+    }
+
+    @Scheduled(fixedRateString = "${shareit.booking-stream.heartbeat}")
+    public void heartbeat() {
+        subscribers.forEach((userId, current) -> current.forEach(subscriber ->
+                send(userId, subscriber, SseEmitter.event().comment("heartbeat"))));
+    }
+
+    public int subscriberCount(Long userId) {
+        return subscribers.getOrDefault(userId, Set.of()).size();
+    }
+
+    @PreDestroy
+    public void close() {
+        subscribers.values().forEach(current -> current.forEach(subscriber -> {
+            subscriber.emitter().complete();
+            subscriber.sender().shutdown();
+        }));
+    }
+
+    /**
+     * Queues the event on the subscriber's sender, behind everything submitted to it earlier.
+     */
+    private void send(Long userId, Subscriber subscriber, SseEmitter.SseEventBuilder event) {
+        try {
+            subscriber.sender().execute(() -> {
+                try {
+                    subscriber.emitter().send(event);
+                } catch (IOException | IllegalStateException e) {
+                    log.debug("Dropping booking stream of user {}: {}", userId, e.getMessage());
+                    unsubscribe(userId, subscriber);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // the subscriber was removed concurrently
+        }
+    }
+
+    private void unsubscribe(Long userId, Subscriber subscriber) {
+        subscriber.sender().shutdown();
+        subscribers.computeIfPresent(userId, (id, current) -> {
+            current.remove(subscriber);
+            return current.isEmpty() ? null : current;
+        });
+    }
+
+    private record Subscriber(SseEmitter emitter, ExecutorService sender) {
+    }
+}
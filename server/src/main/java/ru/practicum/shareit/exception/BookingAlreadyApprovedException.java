@@ -1,7 +0,0 @@
-package ru.practicum.shareit.exception;
-
-public class BookingAlreadyApprovedException extends RuntimeException {
-    public BookingAlreadyApprovedException(String message) {
-        super(message);
-    }
-}
\ No newline at end of file
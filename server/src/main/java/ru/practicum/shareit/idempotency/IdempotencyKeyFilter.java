@@ -0,0 +1,228 @@
+package ru.practicum.shareit.idempotency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import ru.practicum.shareit.errors.ErrorResponse;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Replays the first successful response to a create that is retried with the same {@code Idempotency-Key}.
+ * <p>
+ * Covers {@code POST /bookings} and {@code POST /items}; a key is scoped to the user and the endpoint. A retry
+ * with the same body gets the stored status and body back, marked with {@code Idempotent-Replayed}, without
+ * reaching the controller. Reusing a key for another body is rejected with 422, and a retry arriving while the
+ * first request still runs gets 409. Only successful responses are stored, so a failed create can be retried
+ * under its key. Stored responses are kept for {@code shareit.idempotency.ttl} and exported as the
+ * {@code idempotency} cache metrics.
+ * <p>
+ * A keyed body is buffered before the lookup, so it is capped at {@code shareit.idempotency.max-body-size}; a
+ * larger one is rejected with 413 as soon as its declared length or the bytes read exceed the cap.
+ */
+@Component
+public class IdempotencyKeyFilter extends OncePerRequestFilter {
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final Set<String> PATHS = Set.of("/bookings", "/items");
+    private static final String NAME = "idempotency";
+
+    private final Cache<String, StoredResponse> responses;
+    private final Map<String, Boolean> inFlight = new ConcurrentHashMap<>();
+    private final ObjectMapper objectMapper;
+    private final int maxBodySize;
+
+    public IdempotencyKeyFilter(@Value("${shareit.idempotency.ttl}") Duration ttl,
+                                @Value("${shareit.idempotency.maximum-size}") long maximumSize,
+                                @Value("${shareit.idempotency.max-body-size}") DataSize maxBodySize,
+                                ObjectProvider<MeterRegistry> meterRegistry,
+                                ObjectMapper objectMapper) {
+        this.responses = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        meterRegistry.ifAvailable(registry -> CaffeineCacheMetrics.monitor(registry, responses, NAME));
+        this.objectMapper = objectMapper;
+        this.maxBodySize = Math.toIntExact(maxBodySize.toBytes());
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !HttpMethod.POST.matches(request.getMethod())
+                || !PATHS.contains(request.getRequestURI())
+                || request.getHeader(HEADER) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String key = request.getHeader("X-Sharer-User-Id") + " " + request.getRequestURI() + " "
+                + request.getHeader(HEADER);
+        byte[] body = request.getContentLengthLong() > maxBodySize ? null : readBody(request);
+        if (body == null) {
+            writeError(response, HttpStatus.PAYLOAD_TOO_LARGE,
+                    "Request body of an idempotent request must not exceed " + maxBodySize + " bytes");
+            return;
+        }
+        BufferedRequest buffered = new BufferedRequest(request, body);
+        byte[] fingerprint = sha256(buffered.body);
+
+        StoredResponse stored = responses.getIfPresent(key);
+        if (stored != null) {
+            replay(stored, fingerprint, response);
+            return;
+        }
+        if (inFlight.putIfAbsent(key, Boolean.TRUE) != null) {
+            writeError(response, HttpStatus.CONFLICT, "A request with this Idempotency-Key is still in progress");
+            return;
+        }
+        try {
+            // the first request may have finished between the lookup and the claim
+            stored = responses.getIfPresent(key);
+            if (stored != null) {
+                replay(stored, fingerprint, response);
+                return;
+            }
+            ContentCachingResponseWrapper captured = new ContentCachingResponseWrapper(response);
+            chain.doFilter(buffered, captured);
+            if (HttpStatus.valueOf(captured.getStatus()).is2xxSuccessful()) {
+                responses.put(key, new StoredResponse(fingerprint, captured.getStatus(), captured.getContentType(),
+                        captured.getContentAsByteArray()));
+            }
+            captured.copyBodyToResponse();
+        } finally {
+            inFlight.remove(key);
+        }
+    }
+
+    /**
+     * Reads at most one byte past the cap, so an oversized body without a declared length is not buffered
+     * whole either. Returns {@code null} when the body is too large.
+     */
+    private byte[] readBody(HttpServletRequest request) throws IOException {
+        byte[] body = request.getInputStream().readNBytes(maxBodySize + 1);
+        return body.length > maxBodySize ? null : body;
+    }
+
+    private void replay(StoredResponse stored, byte[] fingerprint, HttpServletResponse response) throws IOException {
+        if (!Arrays.equals(stored.fingerprint(), fingerprint)) {
+            writeError(response, HttpStatus.UNPROCESSABLE_ENTITY,
+                    "Idempotency-Key was already used for a different request");
+            return;
+        }
+        response.setStatus(stored.status());
+        response.setContentType(stored.contentType());
+        response.setHeader(REPLAYED_HEADER, "true");
+        response.getOutputStream().write(stored.body());
+    }
+
+    private void writeError(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), new ErrorResponse(message));
+    }
+
+    private static byte[] sha256(byte[] body) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(body);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record StoredResponse(byte[] fingerprint, int status, String contentType, byte[] body) {
+    }
+
+    /**
+     * Reads the whole body up front, so it can be fingerprinted before the controller consumes it. Spring's
+     * {@code ContentCachingRequestWrapper} only captures the body as the controller reads it, which is too late.
+     */
+    private static class BufferedRequest extends HttpServletRequestWrapper {
+        private final byte[] body;
+
+        BufferedRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                /**
+                 * The body is already in memory, so it is available at once and ends right after it is read.
+                 */
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    try {
+                        if (!isFinished()) {
+                            listener.onDataAvailable();
+                        }
+                        listener.onAllDataRead();
+                    } catch (IOException e) {
+                        listener.onError(e);
+                    }
+                }
+
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) {
+                    return in.read(buffer, offset, length);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            return new BufferedReader(new InputStreamReader(getInputStream(),
+                    encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package ru.practicum.shareit.item.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.ConcurrentStatsCounter;
+import com.github.benmanes.caffeine.cache.stats.StatsCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.event.BookingChangedEvent;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.event.ItemChangedEvent;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded cache of assembled {@code GET /items/{id}} responses.
+ * <p>
+ * The owner view (with last/next booking) and the public view are cached separately, so booking changes only
+ * evict the owner view. Entries expire after the configured TTL, which also bounds how long last/next booking
+ * can lag behind the clock. Hit/miss statistics are exported as the {@code itemDetails} cache metrics.
+ * <p>
+ * Every eviction stamps the item with a new generation. A reader takes {@link #generation()} before loading and
+ * passes it to {@link #put}, which drops the view if the item was evicted in the meantime; otherwise a view read
+ * before a commit could be stored after the commit's eviction and stay stale for the whole TTL.
+ */
+@Component
+public class ItemDetailsCache {
+    private static final String NAME = "itemDetails";
+
+    private final StatsCounter stats = new ConcurrentStatsCounter();
+    private final Cache<ViewKey, ItemDto> views;
+    private final Cache<Long, Long> owners;
+    private final AtomicLong clock = new AtomicLong();
+    private final Cache<Long, Long> evictedAt;
+    /**
+     * Highest generation among stamps dropped from {@link #evictedAt}; stands in for any item without a stamp.
+     */
+    private final AtomicLong evictedFloor = new AtomicLong();
+
+    public ItemDetailsCache(@Value("${shareit.item-cache.maximum-size}") long maximumSize,
+                            @Value("${shareit.item-cache.ttl}") Duration ttl,
+                            MeterRegistry meterRegistry) {
+        this.views = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats(() -> stats)
+                .build();
+        this.owners = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .build();
+        this.evictedAt = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .<Long, Long>evictionListener((itemId, generation, cause) ->
+                        evictedFloor.accumulateAndGet(generation, Math::max))
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, views, NAME);
+    }
+
+    /**
+     * Returns the view of the item for the given user, or {@code null} when it has to be assembled.
+     */
+    public ItemDto find(Long itemId, Long userId) {
+        Long ownerId = owners.getIfPresent(itemId);
+        if (ownerId == null) {
+            stats.recordMisses(1);
+            return null;
+        }
+        return views.getIfPresent(new ViewKey(itemId, ownerId.equals(userId)));
+    }
+
+    /**
+     * Returns the generation to pass to {@link #put}; must be taken before the view is read from the database.
+     */
+    public long generation() {
+        return clock.get();
+    }
+
+    /**
+     * Caches the view unless the item was evicted after {@code generation} was taken. The check runs under the
+     * entry's lock, and eviction stamps the item before invalidating, so a stale view cannot slip in between.
+     */
+    public void put(Long itemId, Long ownerId, boolean ownerView, ItemDto item, long generation) {
+        owners.put(itemId, ownerId);
+        views.asMap().compute(new ViewKey(itemId, ownerView),
+                (key, current) -> lastEviction(itemId) > generation ? current : item);
+    }
+
+    private long lastEviction(Long itemId) {
+        Long stamp = evictedAt.getIfPresent(itemId);
+        return stamp != null ? stamp : evictedFloor.get();
+    }
+
+    @EventListener
+    public void onItemChanged(ItemChangedEvent event) {
+        evict(List.of(new ViewKey(event.itemId(), true), new ViewKey(event.itemId(), false)));
+    }
+
+    @EventListener
+    public void onBookingChanged(BookingChangedEvent event) {
+        evict(List.of(new ViewKey(event.itemId(), true)));
+    }
+
+    /**
+     * Evicts right away and once more when the surrounding transaction completes, so that a concurrent read
+     * cannot leave a view of uncommitted or pre-commit state in the cache.
+     */
+    private void evict(List<ViewKey> keys) {
+        invalidate(keys);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    invalidate(keys);
+                }
+            });
+        }
+    }
+
+    private void invalidate(List<ViewKey> keys) {
+        long generation = clock.incrementAndGet();
+        keys.forEach(key -> evictedAt.asMap().merge(key.itemId(), generation, Math::max));
+        views.invalidateAll(keys);
+    }
+
+    private record ViewKey(Long itemId, boolean ownerView) {
+    }
+}
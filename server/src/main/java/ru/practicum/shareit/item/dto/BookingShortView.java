@@ -0,0 +1,9 @@
+package ru.practicum.shareit.item.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Last/next booking of an item, read without loading the booking, item or booker entities.
+ */
+public record BookingShortView(Long id, Long itemId, Long bookerId, LocalDateTime start, LocalDateTime end) {
+}
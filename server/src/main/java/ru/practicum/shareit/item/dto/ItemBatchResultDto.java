@@ -0,0 +1,25 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of one entry of a bulk item import: either the created item or the reason it was rejected.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ItemBatchResultDto {
+    private Integer index;
+    private ItemDto item;
+    private String error;
+
+    public static ItemBatchResultDto created(int index, ItemDto item) {
+        return new ItemBatchResultDto(index, item, null);
+    }
+
+    public static ItemBatchResultDto rejected(int index, String error) {
+        return new ItemBatchResultDto(index, null, error);
+    }
+}
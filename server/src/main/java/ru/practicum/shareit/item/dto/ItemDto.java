@@ -20,4 +20,5 @@ public class ItemDto {
     private BookingShortDto nextBooking;
     private List<CommentDto> comments;
     private Long requestId;
+    private Long commentsCount;
 }
\ No newline at end of file
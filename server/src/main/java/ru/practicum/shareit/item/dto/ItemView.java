@@ -0,0 +1,7 @@
+package ru.practicum.shareit.item.dto;
+
+/**
+ * Item row with owner and request ids, read without loading the item entity.
+ */
+public record ItemView(Long id, String name, String description, Boolean available, Long ownerId, Long requestId) {
+}
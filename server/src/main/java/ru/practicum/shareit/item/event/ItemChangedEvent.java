@@ -0,0 +1,7 @@
+package ru.practicum.shareit.item.event;
+
+/**
+ * Published synchronously, inside the transaction, whenever an item or its comments change.
+ */
+public record ItemChangedEvent(Long itemId) {
+}
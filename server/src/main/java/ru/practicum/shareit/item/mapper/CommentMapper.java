@@ -1,11 +1,13 @@
 package ru.practicum.shareit.item.mapper;
 
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.CommentView;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 
 public class CommentMapper {
     public static Comment toComment(CommentDto dto, Item item, User author) {
@@ -13,7 +15,7 @@ public class CommentMapper {
         comment.setText(dto.getText());
         comment.setItem(item);
         comment.setAuthor(author);
-        comment.setCreated(LocalDateTime.now());
+        comment.setCreated(LocalDateTime.now().truncatedTo(ChronoUnit.MICROS));
         return comment;
     }
 
@@ -25,4 +27,13 @@ public class CommentMapper {
                 comment.getCreated()
         );
     }
+
+    public static CommentDto toDto(CommentView comment) {
+        return new CommentDto(
+                comment.getId(),
+                comment.getText(),
+                comment.getAuthorName(),
+                comment.getCreated()
+        );
+    }
 }
\ No newline at end of file
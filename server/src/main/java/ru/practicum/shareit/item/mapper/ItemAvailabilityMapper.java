@@ -0,0 +1,72 @@
+package ru.practicum.shareit.item.mapper;
+
+import ru.practicum.shareit.booking.dto.BookingInterval;
+import ru.practicum.shareit.item.dto.AvailabilityIntervalDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+public class ItemAvailabilityMapper {
+    /**
+     * Builds the calendar from booked intervals ordered by start. Overlapping or touching intervals are merged
+     * into one busy interval.
+     */
+    public static ItemAvailabilityDto toDto(Long itemId, LocalDateTime from, LocalDateTime to,
+                                            List<BookingInterval> booked) {
+        List<AvailabilityIntervalDto> busy = new ArrayList<>();
+        List<AvailabilityIntervalDto> free = new ArrayList<>();
+        LocalDateTime cursor = from;
+        AvailabilityIntervalDto current = null;
+
+        for (BookingInterval interval : booked) {
+            LocalDateTime start = interval.start().isBefore(from) ? from : interval.start();
+            LocalDateTime end = interval.end().isAfter(to) ? to : interval.end();
+            if (!start.isBefore(end)) {
+                continue;
+            }
+            if (current != null && !start.isAfter(current.getEnd())) {
+                if (end.isAfter(current.getEnd())) {
+                    current.setEnd(end);
+                }
+                continue;
+            }
+            if (current != null) {
+                cursor = current.getEnd();
+            }
+            if (cursor.isBefore(start)) {
+                free.add(new AvailabilityIntervalDto(cursor, start));
+            }
+            current = new AvailabilityIntervalDto(start, end);
+            busy.add(current);
+        }
+
+        if (current != null) {
+            cursor = current.getEnd();
+        }
+        if (cursor.isBefore(to)) {
+            free.add(new AvailabilityIntervalDto(cursor, to));
+        }
+        return new ItemAvailabilityDto(itemId, from, to, busy, free);
+    }
+
+    /**
+     * Earliest slot of {@code length} starting at {@code from} or later that none of the booked intervals,
+     * ordered by start, intersects.
+     */
+    public static AvailabilityIntervalDto toNextFreeSlot(LocalDateTime from, Duration length,
+                                                         List<BookingInterval> booked) {
+        LocalDateTime start = from;
+        for (BookingInterval interval : booked) {
+            if (!interval.start().isBefore(start.plus(length))) {
+                break;
+            }
+            if (interval.end().isAfter(start)) {
+                start = interval.end();
+            }
+        }
+        return new AvailabilityIntervalDto(start, start.plus(length));
+    }
+}
@@ -0,0 +1,22 @@
+package ru.practicum.shareit.item.mapper;
+
+import ru.practicum.shareit.item.dto.BookingShortDto;
+import ru.practicum.shareit.item.model.ItemBookingSummary;
+
+public class ItemBookingSummaryMapper {
+    public static BookingShortDto toLastBooking(ItemBookingSummary summary) {
+        if (summary.getLastBookingId() == null) {
+            return null;
+        }
+        return new BookingShortDto(summary.getLastBookingId(), summary.getLastBookerId(),
+                summary.getLastStart(), summary.getLastEnd());
+    }
+
+    public static BookingShortDto toNextBooking(ItemBookingSummary summary) {
+        if (summary.getNextBookingId() == null) {
+            return null;
+        }
+        return new BookingShortDto(summary.getNextBookingId(), summary.getNextBookerId(),
+                summary.getNextStart(), summary.getNextEnd());
+    }
+}
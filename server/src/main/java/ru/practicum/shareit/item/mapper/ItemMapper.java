@@ -3,6 +3,7 @@ package ru.practicum.shareit.item.mapper;
 import ru.practicum.shareit.item.dto.BookingShortDto;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemView;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.model.User;
@@ -19,6 +20,14 @@ public class ItemMapper {
                                     BookingShortDto lastBooking,
                                     BookingShortDto nextBooking,
                                     List<CommentDto> comments) {
+        return toItemDto(item, lastBooking, nextBooking, comments, null);
+    }
+
+    public static ItemDto toItemDto(Item item,
+                                    BookingShortDto lastBooking,
+                                    BookingShortDto nextBooking,
+                                    List<CommentDto> comments,
+                                    Long commentsCount) {
         if (item == null) return null;
 
         ItemDto dto = new ItemDto();
@@ -30,6 +39,31 @@ public class ItemMapper {
         dto.setNextBooking(nextBooking);
         dto.setComments(comments);
         dto.setRequestId(item.getRequest() != null ? item.getRequest().getId() : null); // добавили
+        dto.setCommentsCount(commentsCount);
+        return dto;
+    }
+
+    public static ItemDto toItemDto(ItemView view) {
+        return toItemDto(view, null, null, Collections.emptyList(), null);
+    }
+
+    public static ItemDto toItemDto(ItemView view,
+                                    BookingShortDto lastBooking,
+                                    BookingShortDto nextBooking,
+                                    List<CommentDto> comments,
+                                    Long commentsCount) {
+        if (view == null) return null;
+
+        ItemDto dto = new ItemDto();
+        dto.setId(view.id());
+        dto.setName(view.name());
+        dto.setDescription(view.description());
+        dto.setAvailable(view.available());
+        dto.setLastBooking(lastBooking);
+        dto.setNextBooking(nextBooking);
+        dto.setComments(comments);
+        dto.setRequestId(view.requestId());
+        dto.setCommentsCount(commentsCount);
         return dto;
     }
 
@@ -1,12 +1,45 @@
 package ru.practicum.shareit.item.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.item.dto.CommentCount;
+import ru.practicum.shareit.item.dto.CommentView;
 import ru.practicum.shareit.item.model.Comment;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
 public interface CommentRepository extends JpaRepository<Comment, Long> {
-    List<Comment> findByItemIdOrderByCreatedDesc(Long itemId);
+    long countByItemId(Long itemId);
+
+    @Query("select c from Comment c join fetch c.author " +
+            "where c.item.id = :itemId order by c.created desc, c.id desc")
+    List<Comment> findLatestByItemId(@Param("itemId") Long itemId, Pageable page);
+
+    @Query("select c from Comment c join fetch c.author " +
+            "where c.item.id = :itemId " +
+            "and (c.created < :created or (c.created = :created and c.id < :id)) " +
+            "order by c.created desc, c.id desc")
+    List<Comment> findByItemIdBefore(@Param("itemId") Long itemId,
+                                     @Param("created") LocalDateTime created,
+                                     @Param("id") Long id,
+                                     Pageable page);
+
+    @Query(value = "SELECT c.id AS \"id\", c.item_id AS \"itemId\", c.text AS \"text\", " +
+            "u.name AS \"authorName\", c.created AS \"created\" " +
+            "FROM (SELECT c.*, ROW_NUMBER() OVER (PARTITION BY c.item_id ORDER BY c.created DESC, c.id DESC) AS rn " +
+            "      FROM comments c JOIN items i ON i.id = c.item_id " +
+            "      WHERE i.owner_id = :ownerId) c " +
+            "JOIN users u ON u.id = c.author_id " +
+            "WHERE c.rn <= :limit " +
+            "ORDER BY c.item_id, c.created DESC, c.id DESC", nativeQuery = true)
+    List<CommentView> findLatestByItemOwnerId(@Param("ownerId") Long ownerId, @Param("limit") int limit);
+
+    @Query("select c.item.id as itemId, count(c) as total from Comment c " +
+            "where c.item.owner.id = :ownerId group by c.item.id")
+    List<CommentCount> countByItemOwnerId(@Param("ownerId") Long ownerId);
 }
\ No newline at end of file
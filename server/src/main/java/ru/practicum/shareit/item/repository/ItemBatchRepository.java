@@ -0,0 +1,47 @@
+package ru.practicum.shareit.item.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Inserts items with JDBC batching. Items use identity ids, which stop Hibernate from batching inserts.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ItemBatchRepository {
+    private static final int BATCH_SIZE = 500;
+    private static final String INSERT_SQL = "INSERT INTO items (name, description, available, owner_id, request_id) " +
+            "VALUES (:name, :description, :available, :ownerId, :requestId)";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * Returns the generated ids in the order of {@code items}.
+     */
+    public List<Long> insertAll(Long ownerId, List<ItemDto> items) {
+        List<Long> ids = new ArrayList<>(items.size());
+        for (int from = 0; from < items.size(); from += BATCH_SIZE) {
+            SqlParameterSource[] batch = items.subList(from, Math.min(from + BATCH_SIZE, items.size())).stream()
+                    .map(item -> new MapSqlParameterSource()
+                            .addValue("name", item.getName())
+                            .addValue("description", item.getDescription())
+                            .addValue("available", item.getAvailable())
+                            .addValue("ownerId", ownerId)
+                            .addValue("requestId", item.getRequestId()))
+                    .toArray(SqlParameterSource[]::new);
+            KeyHolder keys = new GeneratedKeyHolder();
+            jdbcTemplate.batchUpdate(INSERT_SQL, batch, keys, new String[]{"id"});
+            keys.getKeyList().forEach(key -> ids.add(((Number) key.get("id")).longValue()));
+        }
+        return ids;
+    }
+}
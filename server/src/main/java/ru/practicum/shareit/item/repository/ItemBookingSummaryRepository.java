@@ -0,0 +1,43 @@
+package ru.practicum.shareit.item.repository;
+
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.item.model.ItemBookingSummary;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ItemBookingSummaryRepository extends JpaRepository<ItemBookingSummary, Long> {
+    String VALID_AT = "(s.validUntil is null or s.validUntil > :now)";
+
+    @Query("select s from ItemBookingSummary s where s.itemId = :itemId and " + VALID_AT)
+    Optional<ItemBookingSummary> findValid(@Param("itemId") Long itemId, @Param("now") LocalDateTime now);
+
+    @Query("select s from ItemBookingSummary s join Item i on i.id = s.itemId " +
+            "where i.owner.id = :ownerId and " + VALID_AT)
+    List<ItemBookingSummary> findValidByOwnerId(@Param("ownerId") Long ownerId, @Param("now") LocalDateTime now);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s from ItemBookingSummary s where s.itemId = :itemId")
+    Optional<ItemBookingSummary> findForUpdate(@Param("itemId") Long itemId);
+
+    @Modifying
+    @Query("update ItemBookingSummary s set s.validUntil = :now where s.itemId in :itemIds")
+    int expireAll(@Param("itemIds") Collection<Long> itemIds, @Param("now") LocalDateTime now);
+
+    @Query("select s.itemId from ItemBookingSummary s where s.validUntil <= :now order by s.validUntil")
+    List<Long> findExpiredItemIds(@Param("now") LocalDateTime now, Pageable page);
+
+    @Query("select i.id from Item i where not exists " +
+            "(select 1 from ItemBookingSummary s where s.itemId = i.id) order by i.id")
+    List<Long> findItemIdsWithoutSummary(Pageable page);
+}
@@ -1,12 +1,51 @@
 package ru.practicum.shareit.item.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.item.dto.ItemView;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemSearchRank;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ItemRepository extends JpaRepository<Item, Long> {
-    List<Item> findAllByRequestId(Long requestId);
+    String SELECT_VIEW = "select new ru.practicum.shareit.item.dto.ItemView(" +
+            "i.id, i.name, i.description, i.available, i.owner.id, i.request.id) from Item i ";
+
+    @Query(SELECT_VIEW + "where i.id = :id")
+    Optional<ItemView> findViewById(@Param("id") Long id);
+
+    @Query(SELECT_VIEW + "where i.request.id in :requestIds order by i.id")
+    List<ItemView> findAllByRequestIdIn(@Param("requestIds") Collection<Long> requestIds);
+
+    @Query(SELECT_VIEW + "where i.owner.id = :ownerId order by i.id")
+    List<ItemView> findAllByOwnerIdOrderByIdAsc(@Param("ownerId") Long ownerId);
+
+    @Query(value = "SELECT i.id AS id, ts_rank(i.search_vector, q) AS rank " +
+            "FROM items i, plainto_tsquery('russian', :text) q " +
+            "WHERE i.available = TRUE AND i.search_vector @@ q " +
+            "ORDER BY rank DESC, i.id", nativeQuery = true)
+    List<ItemSearchRank> searchFullText(@Param("text") String text, Pageable page);
+
+    @Query(value = "SELECT i.id AS id, ts_rank(i.search_vector, q) AS rank " +
+            "FROM items i, plainto_tsquery('russian', :text) q " +
+            "WHERE i.available = TRUE AND i.search_vector @@ q " +
+            "AND (ts_rank(i.search_vector, q) < :rank " +
+            "OR (ts_rank(i.search_vector, q) = :rank AND i.id > :afterId)) " +
+            "ORDER BY rank DESC, i.id", nativeQuery = true)
+    List<ItemSearchRank> searchFullTextAfter(@Param("text") String text,
+                                             @Param("rank") Float rank,
+                                             @Param("afterId") Long afterId,
+                                             Pageable page);
+
+    @Query("select i from Item i where i.available = true and i.id > :afterId " +
+            "and (lower(i.name) like :pattern escape '\\' or lower(i.description) like :pattern escape '\\') " +
+            "order by i.id")
+    List<Item> searchBySubstring(@Param("pattern") String pattern, @Param("afterId") Long afterId, Pageable page);
 }
\ No newline at end of file
@@ -0,0 +1,65 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.exception.BadRequestException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.pagination.CursorCodec;
+import ru.practicum.shareit.pagination.CursorPage;
+import ru.practicum.shareit.pagination.OffsetPageRequest;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * PostgreSQL full-text search over the generated {@code items.search_vector} column,
+ * ordered by {@code ts_rank} with name matches weighted above description matches.
+ * The cursor is the {@code (rank, id)} pair of the last returned item.
+ */
+@Component
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "fulltext")
+@RequiredArgsConstructor
+public class FullTextItemSearchEngine implements ItemSearchEngine {
+    private final ItemRepository itemRepository;
+
+    @Override
+    public CursorPage<Item> search(String text, String cursor, int from, int size) {
+        List<ItemSearchRank> ranks;
+        if (cursor == null) {
+            ranks = itemRepository.searchFullText(text, OffsetPageRequest.of(from, size));
+        } else {
+            String[] position = CursorCodec.decode(cursor, 2);
+            ranks = itemRepository.searchFullTextAfter(text, parseRank(position[0], cursor),
+                    CursorCodec.parseLong(position[1], cursor), PageRequest.of(0, size));
+        }
+        if (ranks.isEmpty()) {
+            return new CursorPage<>(List.of(), null);
+        }
+
+        Map<Long, Item> items = itemRepository.findAllById(ranks.stream().map(ItemSearchRank::getId).toList())
+                .stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        List<Item> page = ranks.stream()
+                .map(rank -> items.get(rank.getId()))
+                .filter(Objects::nonNull)
+                .toList();
+
+        ItemSearchRank last = ranks.get(ranks.size() - 1);
+        String next = ranks.size() < size ? null : CursorCodec.encode(last.getRank(), last.getId());
+        return new CursorPage<>(page, next);
+    }
+
+    private static Float parseRank(String value, String cursor) {
+        try {
+            return Float.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw new BadRequestException("Invalid cursor: " + cursor);
+        }
+    }
+}
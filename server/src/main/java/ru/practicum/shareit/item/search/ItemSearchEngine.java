@@ -0,0 +1,26 @@
+package ru.practicum.shareit.item.search;
+
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.pagination.CursorPage;
+
+/**
+ * Strategy behind {@code GET /items/search}. The implementation is selected with
+ * the {@code shareit.search.engine} property.
+ */
+public interface ItemSearchEngine {
+    /**
+     * Returns up to {@code size} matches. When a cursor issued by this engine is given, the page starts right
+     * after it and {@code from} is ignored; otherwise the first {@code from} matches are skipped.
+     * <p>
+     * Skipping is not free: every engine still finds and drops the {@code from} earlier matches (the database
+     * ones with SQL {@code OFFSET}), so an offset page gets slower the deeper it is. Deep paging should follow
+     * the cursor.
+     */
+    CursorPage<Item> search(String text, String cursor, int from, int size);
+
+    /**
+     * Notifies the engine that the item was created or changed.
+     */
+    default void index(Item item) {
+    }
+}
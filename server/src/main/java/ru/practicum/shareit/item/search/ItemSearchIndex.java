@@ -0,0 +1,259 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.pagination.CursorCodec;
+import ru.practicum.shareit.pagination.CursorPage;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-memory n-gram index over the name and description of available items.
+ * <p>
+ * Every substring of length 1..{@value #MAX_GRAM} of the lower-cased text is indexed, so a query is answered
+ * by scanning the posting list of its rarest gram and verifying candidates with {@code contains}. This keeps
+ * the case-insensitive substring semantics of the former full-table scan while the cost of a search depends
+ * on the number of candidates rather than on the size of the table. Results are ordered by id, which is
+ * also the cursor.
+ * <p>
+ * Posting lists are kept sorted by id, so a search walks the rarest one from the cursor and stops once the
+ * page is full: a cursor page costs the candidates up to its last match, not every match. An offset page
+ * still verifies the {@code from} matches before it.
+ * <p>
+ * Changes made inside a transaction reach the index only after it commits, so searches never see items of
+ * a transaction that rolls back. The index then re-reads the changed items in a new transaction under its
+ * lock, so when two transactions change one item the last refresh applies the last committed state,
+ * whichever order their commits were reported in.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "memory", matchIfMissing = true)
+public class ItemSearchIndex implements ItemSearchEngine {
+    private static final int MAX_GRAM = 3;
+
+    private final ItemRepository itemRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Map<Long, IndexedItem> items = new ConcurrentHashMap<>();
+    private final Map<String, Posting> postings = new ConcurrentHashMap<>();
+
+    public ItemSearchIndex(ItemRepository itemRepository, PlatformTransactionManager transactionManager) {
+        this.itemRepository = itemRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        items.clear();
+        postings.clear();
+        itemRepository.findAll().forEach(item -> apply(item.getId(), IndexedItem.of(item)));
+        log.info("Item search index built: {} available items, {} grams", items.size(), postings.size());
+    }
+
+    /**
+     * Adds, replaces or removes the item depending on its availability. Inside a transaction the item is
+     * only recorded, and its committed state is indexed once the transaction commits.
+     */
+    @Override
+    public void index(Item item) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            synchronized (this) {
+                apply(item.getId(), IndexedItem.of(item));
+            }
+            return;
+        }
+        PendingItems pending = null;
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof PendingItems candidate && candidate.index() == this) {
+                pending = candidate;
+            }
+        }
+        if (pending == null) {
+            pending = new PendingItems();
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        pending.ids.add(item.getId());
+    }
+
+    @Override
+    public CursorPage<Item> search(String text, String cursor, int from, int size) {
+        Long afterId = cursor == null ? null : CursorCodec.decodeId(cursor);
+        int skip = cursor == null ? from : 0;
+        List<Long> ids = searchIds(text, afterId, (int) Math.min((long) skip + size, Integer.MAX_VALUE));
+        if (ids.size() <= skip) {
+            return new CursorPage<>(List.of(), null);
+        }
+
+        List<Item> items = itemRepository.findAllById(ids.subList(skip, ids.size())).stream()
+                .sorted(Comparator.comparing(Item::getId))
+                .toList();
+        return CursorPage.of(items, size, item -> CursorCodec.encode(item.getId()));
+    }
+
+    /**
+     * Returns ids of available items whose name or description contains the text, in ascending order.
+     */
+    public List<Long> searchIds(String text) {
+        return searchIds(text, null, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Returns up to {@code limit} ids of matching items greater than {@code afterId} (all when {@code null}),
+     * in ascending order, verifying only the candidates it needs.
+     */
+    private List<Long> searchIds(String text, Long afterId, int limit) {
+        String query = text.toLowerCase();
+        Posting rarest = null;
+        for (String gram : grams(query)) {
+            Posting posting = postings.get(gram);
+            if (posting == null) {
+                return List.of();
+            }
+            if (rarest == null || posting.size() < rarest.size()) {
+                rarest = posting;
+            }
+        }
+        if (rarest == null) {
+            return List.of();
+        }
+
+        NavigableSet<Long> candidates = afterId == null ? rarest.ids : rarest.ids.tailSet(afterId, false);
+        List<Long> result = new ArrayList<>();
+        for (Iterator<Long> it = candidates.iterator(); it.hasNext() && result.size() < limit; ) {
+            Long id = it.next();
+            IndexedItem item = items.get(id);
+            if (item != null && item.matches(query)) {
+                result.add(id);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Indexes the committed state of the items; an item that no longer exists is removed. If the items cannot
+     * be read, the index keeps their old state until the next {@link #rebuild()}.
+     */
+    private synchronized void refresh(Collection<Long> ids) {
+        Map<Long, IndexedItem> committed;
+        try {
+            committed = transactionTemplate.execute(status -> {
+                Map<Long, IndexedItem> found = new HashMap<>();
+                itemRepository.findAllById(ids).forEach(item -> found.put(item.getId(), IndexedItem.of(item)));
+                return found;
+            });
+        } catch (DataAccessException e) {
+            log.warn("Could not refresh {} items in the search index", ids.size(), e);
+            return;
+        }
+        ids.forEach(id -> apply(id, committed.get(id)));
+    }
+
+    private void apply(Long id, IndexedItem next) {
+        IndexedItem previous = next == null ? items.remove(id) : items.put(id, next);
+        if (previous != null) {
+            for (String gram : previous.grams()) {
+                Posting posting = postings.get(gram);
+                if (posting != null && posting.remove(id) == 0) {
+                    postings.remove(gram);
+                }
+            }
+        }
+        if (next != null) {
+            for (String gram : next.grams()) {
+                postings.computeIfAbsent(gram, g -> new Posting()).add(id);
+            }
+        }
+    }
+
+    private static Set<String> grams(String query) {
+        int length = Math.min(query.length(), MAX_GRAM);
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + length <= query.length(); i++) {
+            grams.add(query.substring(i, i + length));
+        }
+        return grams;
+    }
+
+    /**
+     * Items changed by the current transaction, indexed after it commits.
+     */
+    private final class PendingItems implements TransactionSynchronization {
+        private final Set<Long> ids = new LinkedHashSet<>();
+
+        ItemSearchIndex index() {
+            return ItemSearchIndex.this;
+        }
+
+        @Override
+        public void afterCommit() {
+            refresh(ids);
+        }
+    }
+
+    /**
+     * Ids of the items containing one gram, sorted for range scans. The size is tracked separately because
+     * {@link ConcurrentSkipListSet#size()} walks the whole set. Changed only under the index lock.
+     */
+    private static final class Posting {
+        private final NavigableSet<Long> ids = new ConcurrentSkipListSet<>();
+        private final AtomicInteger size = new AtomicInteger();
+
+        void add(Long id) {
+            if (ids.add(id)) {
+                size.incrementAndGet();
+            }
+        }
+
+        int remove(Long id) {
+            return ids.remove(id) ? size.decrementAndGet() : size.get();
+        }
+
+        int size() {
+            return size.get();
+        }
+    }
+
+    private record IndexedItem(String name, String description) {
+        static IndexedItem of(Item item) {
+            if (!Boolean.TRUE.equals(item.getAvailable())) {
+                return null;
+            }
+            return new IndexedItem(item.getName().toLowerCase(), item.getDescription().toLowerCase());
+        }
+
+        boolean matches(String query) {
+            return name.contains(query) || description.contains(query);
+        }
+
+        Set<String> grams() {
+            Set<String> grams = new HashSet<>();
+            collect(name, grams);
+            collect(description, grams);
+            return grams;
+        }
+
+        private static void collect(String text, Set<String> grams) {
+            for (int i = 0; i < text.length(); i++) {
+                for (int length = 1; length <= MAX_GRAM && i + length <= text.length(); length++) {
+                    grams.add(text.substring(i, i + length));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package ru.practicum.shareit.item.search;
+
+/**
+ * Full-text match of an item together with its {@code ts_rank}.
+ */
+public interface ItemSearchRank {
+    Long getId();
+
+    Float getRank();
+}
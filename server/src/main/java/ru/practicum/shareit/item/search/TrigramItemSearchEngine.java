@@ -0,0 +1,43 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.pagination.CursorCodec;
+import ru.practicum.shareit.pagination.CursorPage;
+import ru.practicum.shareit.pagination.OffsetPageRequest;
+
+import java.util.List;
+
+/**
+ * Case-insensitive substring search executed by the database. On PostgreSQL the
+ * {@code lower(name) LIKE '%text%'} predicates are served by the partial {@code pg_trgm}
+ * GIN indexes from schema.sql, so "дрел" still matches "Дрель аккумуляторная".
+ * Results are ordered by id, which is also the cursor.
+ */
+@Component
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "trigram")
+@RequiredArgsConstructor
+public class TrigramItemSearchEngine implements ItemSearchEngine {
+    private final ItemRepository itemRepository;
+
+    @Override
+    public CursorPage<Item> search(String text, String cursor, int from, int size) {
+        String pattern = containsPattern(text);
+        List<Item> items = cursor == null
+                ? itemRepository.searchBySubstring(pattern, 0L, OffsetPageRequest.of(from, size))
+                : itemRepository.searchBySubstring(pattern, CursorCodec.decodeId(cursor), PageRequest.of(0, size));
+        return CursorPage.of(items, size, item -> CursorCodec.encode(item.getId()));
+    }
+
+    static String containsPattern(String text) {
+        String escaped = text.toLowerCase()
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+        return "%" + escaped + "%";
+    }
+}
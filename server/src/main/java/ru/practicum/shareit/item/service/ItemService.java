@@ -1,20 +1,34 @@
 package ru.practicum.shareit.item.service;
 
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemBatchResultDto;
+import ru.practicum.shareit.item.dto.AvailabilityIntervalDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.pagination.CursorPage;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ItemService {
     ItemDto createItem(ItemDto itemDto, Long ownerId);
 
+    List<ItemBatchResultDto> createItems(List<ItemDto> itemDtos, Long ownerId);
+
     ItemDto updateItem(ItemDto itemDto, Long itemId, Long ownerId);
 
-    ItemDto getItemById(Long itemId, Long userId);
+    ItemDto getItemById(Long itemId, Long userId, Integer commentsLimit);
 
-    List<ItemDto> getAllItemsByOwner(Long ownerId);
+    List<ItemDto> getAllItemsByOwner(Long ownerId, Integer commentsLimit);
 
-    List<ItemDto> searchItems(String text);
+    CursorPage<ItemDto> searchItems(String text, Integer from, Integer size, String cursor);
 
     CommentDto addComment(Long userId, Long itemId, CommentDto commentDto);
+
+    CursorPage<CommentDto> getComments(Long itemId, Integer size, String cursor);
+
+    ItemAvailabilityDto getAvailability(Long itemId, LocalDateTime from, LocalDateTime to);
+
+    AvailabilityIntervalDto getNextFreeSlot(Long itemId, LocalDateTime from, Duration length);
 }
\ No newline at end of file
@@ -0,0 +1,195 @@
+package ru.practicum.shareit.item.summary;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.event.BookingChangedEvent;
+import ru.practicum.shareit.booking.model.StatusBooking;
+import ru.practicum.shareit.booking.repository.BookingArchiveRepository;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.dto.BookingShortView;
+import ru.practicum.shareit.item.model.ItemBookingSummary;
+import ru.practicum.shareit.item.repository.ItemBookingSummaryRepository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Maintains {@link ItemBookingSummary} rows.
+ * <p>
+ * Summaries show approved bookings only, so only an approval changes one. The items approved in a transaction
+ * are collected and, once it commits, their summaries are expired with one bulk update and recomputed, so the
+ * decision itself pays no extra statement however many bookings it approves. From the expiry until the
+ * refresh finishes, and for good if the refresh fails, readers see an expired row and use the bookings. New
+ * bookings and rejections leave summaries alone. The roll-forward job recomputes summaries whose
+ * {@code validUntil} has passed and creates the missing ones. Each refresh runs in its own transaction
+ * and locks the summary row, so concurrent refreshes of one item apply one after another and the last one
+ * sees every committed booking.
+ */
+@Slf4j
+@Component
+public class ItemBookingSummaryUpdater {
+    private static final PageRequest FIRST = PageRequest.of(0, 1);
+
+    private final ItemBookingSummaryRepository summaryRepository;
+    private final BookingRepository bookingRepository;
+    private final BookingArchiveRepository bookingArchiveRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+
+    public ItemBookingSummaryUpdater(ItemBookingSummaryRepository summaryRepository,
+                                     BookingRepository bookingRepository,
+                                     BookingArchiveRepository bookingArchiveRepository,
+                                     PlatformTransactionManager transactionManager,
+                                     @Value("${shareit.booking-summary.batch-size}") int batchSize) {
+        this.summaryRepository = summaryRepository;
+        this.bookingRepository = bookingRepository;
+        this.bookingArchiveRepository = bookingArchiveRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.batchSize = batchSize;
+    }
+
+    @EventListener
+    public void onBookingChanged(BookingChangedEvent event) {
+        if (event.status() != StatusBooking.APPROVED) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            refreshApproved(Set.of(event.itemId()));
+            return;
+        }
+        ApprovedItems approved = null;
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof ApprovedItems candidate && candidate.updater() == this) {
+                approved = candidate;
+            }
+        }
+        if (approved == null) {
+            approved = new ApprovedItems();
+            TransactionSynchronizationManager.registerSynchronization(approved);
+        }
+        approved.itemIds.add(event.itemId());
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.booking-summary.roll-forward}",
+            initialDelayString = "${shareit.booking-summary.roll-forward}")
+    public void rollForward() {
+        int refreshed = 0;
+        List<Long> itemIds;
+        do {
+            itemIds = summaryRepository.findExpiredItemIds(LocalDateTime.now(), PageRequest.of(0, batchSize));
+            if (!refreshAll(itemIds)) {
+                return;
+            }
+            refreshed += itemIds.size();
+        } while (itemIds.size() == batchSize);
+        do {
+            itemIds = summaryRepository.findItemIdsWithoutSummary(PageRequest.of(0, batchSize));
+            if (!refreshAll(itemIds)) {
+                return;
+            }
+            refreshed += itemIds.size();
+        } while (itemIds.size() == batchSize);
+        if (refreshed > 0) {
+            log.debug("Rolled {} item booking summaries forward", refreshed);
+        }
+    }
+
+    /**
+     * Recomputes the summary of the item from its bookings and returns it.
+     */
+    public ItemBookingSummary refresh(Long itemId) {
+        return transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            ItemBookingSummary summary = summaryRepository.findForUpdate(itemId)
+                    .orElseGet(() -> new ItemBookingSummary(itemId, null, null, null, null,
+                            null, null, null, null, null));
+
+            BookingShortView last = bookingRepository.findLastByItemId(itemId, now, FIRST).stream().findFirst()
+                    .or(() -> bookingArchiveRepository.findLastByItemId(itemId, FIRST).stream().findFirst())
+                    .orElse(null);
+            BookingShortView next = bookingRepository.findNextByItemId(itemId, now, FIRST).stream().findFirst()
+                    .orElse(null);
+            LocalDateTime earliestEnd = bookingRepository.findEarliestEndAfter(itemId, now);
+
+            summary.setLastBookingId(last != null ? last.id() : null);
+            summary.setLastBookerId(last != null ? last.bookerId() : null);
+            summary.setLastStart(last != null ? last.start() : null);
+            summary.setLastEnd(last != null ? last.end() : null);
+            summary.setNextBookingId(next != null ? next.id() : null);
+            summary.setNextBookerId(next != null ? next.bookerId() : null);
+            summary.setNextStart(next != null ? next.start() : null);
+            summary.setNextEnd(next != null ? next.end() : null);
+            summary.setValidUntil(next == null || (earliestEnd != null && earliestEnd.isBefore(next.start()))
+                    ? earliestEnd : next.start());
+            return summaryRepository.save(summary);
+        });
+    }
+
+    private void refreshApproved(Collection<Long> itemIds) {
+        try {
+            transactionTemplate.executeWithoutResult(
+                    status -> summaryRepository.expireAll(itemIds, LocalDateTime.now()));
+        } catch (DataAccessException e) {
+            log.warn("Could not expire booking summaries of items {}", itemIds, e);
+        }
+        itemIds.forEach(this::refreshQuietly);
+    }
+
+    private boolean refreshAll(List<Long> itemIds) {
+        for (Long itemId : itemIds) {
+            if (!refreshQuietly(itemId)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Items with bookings approved by the current transaction, refreshed after it commits.
+     */
+    private final class ApprovedItems implements TransactionSynchronization {
+        private final Set<Long> itemIds = new LinkedHashSet<>();
+
+        ItemBookingSummaryUpdater updater() {
+            return ItemBookingSummaryUpdater.this;
+        }
+
+        @Override
+        public void afterCommit() {
+            refreshApproved(itemIds);
+        }
+    }
+
+    /**
+     * A failed refresh leaves the row expired, and readers use the bookings until the roll-forward recomputes
+     * it. Two first refreshes of one item can race on the insert; the loser retries against the winner's row.
+     */
+    private boolean refreshQuietly(Long itemId) {
+        try {
+            try {
+                refresh(itemId);
+            } catch (DataIntegrityViolationException e) {
+                refresh(itemId);
+            }
+            return true;
+        } catch (DataAccessException e) {
+            log.warn("Could not refresh booking summary of item {}", itemId, e);
+            return false;
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package ru.practicum.shareit.request.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Item request row with the requestor id, read without loading the request entity.
+ */
+public record ItemRequestView(Long id, String description, Long requestorId, LocalDateTime created) {
+}
@@ -3,6 +3,7 @@ package ru.practicum.shareit.request.mapper;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.request.dto.ItemRequestCreateDto;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.dto.ItemRequestView;
 import ru.practicum.shareit.request.model.ItemRequest;
 
 import java.util.Collections;
@@ -24,4 +25,14 @@ public class ItemRequestMapper {
                 items == null ? Collections.emptyList() : items
         );
     }
-}
\ No newline at end of file
+
+    public static ItemRequestDto toDto(ItemRequestView view, List<ItemDto> items) {
+        return new ItemRequestDto(
+                view.id(),
+                view.description(),
+                view.requestorId(),
+                view.created(),
+                items == null ? Collections.emptyList() : items
+        );
+    }
+}
@@ -1,14 +1,33 @@
 package ru.practicum.shareit.request.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.request.dto.ItemRequestView;
 import ru.practicum.shareit.request.model.ItemRequest;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 
 @Repository
 public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
-    List<ItemRequest> findAllByRequestorIdOrderByCreatedDesc(Long requestorId);
+    String SELECT_VIEW = "select new ru.practicum.shareit.request.dto.ItemRequestView(" +
+            "r.id, r.description, r.requestor.id, r.created) from ItemRequest r ";
 
-    List<ItemRequest> findAllByRequestorIdNotOrderByCreatedDesc(Long requestorId, org.springframework.data.domain.Pageable page);
-}
\ No newline at end of file
+    @Query("select r.id from ItemRequest r where r.id in :ids")
+    Set<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    @Query(SELECT_VIEW + "where r.id = :id")
+    Optional<ItemRequestView> findViewById(@Param("id") Long id);
+
+    @Query(SELECT_VIEW + "where r.requestor.id = :requestorId order by r.created desc")
+    List<ItemRequestView> findAllByRequestorIdOrderByCreatedDesc(@Param("requestorId") Long requestorId);
+
+    @Query(SELECT_VIEW + "where r.requestor.id <> :requestorId order by r.created desc")
+    List<ItemRequestView> findAllByRequestorIdNotOrderByCreatedDesc(@Param("requestorId") Long requestorId,
+                                                                    Pageable page);
+}
@@ -6,10 +6,13 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exception.UserNotFoundException;
 import ru.practicum.shareit.exception.ItemRequestNotFoundException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemView;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.request.dto.ItemRequestCreateDto;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.dto.ItemRequestView;
 import ru.practicum.shareit.request.mapper.ItemRequestMapper;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
@@ -18,6 +21,7 @@ import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -42,44 +46,43 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     @Override
     @Transactional(readOnly = true)
     public List<ItemRequestDto> getOwnRequests(Long userId) {
-        userRepo.findById(userId)
-                .orElseThrow(() -> new UserNotFoundException("User not found: " + userId));
-        return reqRepo.findAllByRequestorIdOrderByCreatedDesc(userId).stream()
-                .map(r -> {
-                    var items = itemRepo.findAllByRequestId(r.getId()).stream()
-                            .map(ItemMapper::toItemDto)
-                            .collect(Collectors.toList());
-                    return ItemRequestMapper.toDto(r, items);
-                })
-                .collect(Collectors.toList());
+        if (!userRepo.existsById(userId)) {
+            throw new UserNotFoundException("User not found: " + userId);
+        }
+        return withItems(reqRepo.findAllByRequestorIdOrderByCreatedDesc(userId));
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<ItemRequestDto> getAllRequests(Long userId, Integer from, Integer size) {
-        userRepo.findById(userId)
-                .orElseThrow(() -> new UserNotFoundException("User not found: " + userId));
+        if (!userRepo.existsById(userId)) {
+            throw new UserNotFoundException("User not found: " + userId);
+        }
         var page = PageRequest.of(from / size, size);
-        return reqRepo.findAllByRequestorIdNotOrderByCreatedDesc(userId, page).stream()
-                .map(r -> {
-                    var items = itemRepo.findAllByRequestId(r.getId()).stream()
-                            .map(ItemMapper::toItemDto)
-                            .collect(Collectors.toList());
-                    return ItemRequestMapper.toDto(r, items);
-                })
-                .collect(Collectors.toList());
+        return withItems(reqRepo.findAllByRequestorIdNotOrderByCreatedDesc(userId, page));
     }
 
     @Override
     @Transactional(readOnly = true)
     public ItemRequestDto getRequestById(Long userId, Long requestId) {
-        userRepo.findById(userId)
-                .orElseThrow(() -> new UserNotFoundException("User not found: " + userId));
-        ItemRequest r = reqRepo.findById(requestId)
+        if (!userRepo.existsById(userId)) {
+            throw new UserNotFoundException("User not found: " + userId);
+        }
+        ItemRequestView r = reqRepo.findViewById(requestId)
                 .orElseThrow(() -> new ItemRequestNotFoundException("Request not found: " + requestId));
-        var items = itemRepo.findAllByRequestId(r.getId()).stream()
-                .map(ItemMapper::toItemDto)
+        return withItems(List.of(r)).getFirst();
+    }
+
+    private List<ItemRequestDto> withItems(List<ItemRequestView> requests) {
+        if (requests.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, List<ItemDto>> items = itemRepo
+                .findAllByRequestIdIn(requests.stream().map(ItemRequestView::id).toList()).stream()
+                .collect(Collectors.groupingBy(ItemView::requestId,
+                        Collectors.mapping(ItemMapper::toItemDto, Collectors.toList())));
+        return requests.stream()
+                .map(r -> ItemRequestMapper.toDto(r, items.getOrDefault(r.id(), List.of())))
                 .collect(Collectors.toList());
-        return ItemRequestMapper.toDto(r, items);
     }
 }
\ No newline at end of file
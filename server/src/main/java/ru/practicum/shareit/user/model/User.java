@@ -6,11 +6,16 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Entity
-@Table(name = "users")
+@Table(name = "users", uniqueConstraints = @UniqueConstraint(name = User.EMAIL_CONSTRAINT, columnNames = "email"))
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
 public class User {
+    /**
+     * Unique index on lower(email) in schema.sql; Hibernate-generated schemas get a plain unique constraint.
+     */
+    public static final String EMAIL_CONSTRAINT = "ux_users_email_lower";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -18,6 +23,6 @@ public class User {
     @Column(nullable = false, length = 255)
     private String name;
 
-    @Column(nullable = false, length = 512, unique = true)
+    @Column(nullable = false, length = 512)
     private String email;
 }
\ No newline at end of file
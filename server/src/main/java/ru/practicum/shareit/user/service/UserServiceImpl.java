@@ -1,6 +1,8 @@
 package ru.practicum.shareit.user.service;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.stereotype.Service;
 import ru.practicum.shareit.exception.EmailAlreadyExistsException;
@@ -24,7 +26,7 @@ public class UserServiceImpl implements UserService {
         validateEmailUnique(userDto.getEmail(), null);
 
         User user = UserMapper.toUser(userDto);
-        User saved = userRepository.save(user);
+        User saved = saveWithUniqueEmail(user);
         return UserMapper.toUserDto(saved);
     }
 
@@ -43,7 +45,7 @@ public class UserServiceImpl implements UserService {
             existing.setEmail(userDto.getEmail());
         }
 
-        User updated = userRepository.save(existing);
+        User updated = saveWithUniqueEmail(existing);
         return UserMapper.toUserDto(updated);
     }
 
@@ -75,13 +77,31 @@ public class UserServiceImpl implements UserService {
     }
 
     private void validateEmailUnique(String email, Long excludeId) {
-        userRepository.findAll().stream()
-                .filter(u -> u.getEmail().equalsIgnoreCase(email))
-                .filter(u -> !Objects.equals(u.getId(), excludeId))
-                .findAny()
-                .ifPresent(u -> {
-                    throw new EmailAlreadyExistsException(
-                            "Email already in use");
-                });
+        boolean taken = excludeId == null
+                ? userRepository.existsByEmailIgnoreCase(email)
+                : userRepository.existsByEmailIgnoreCaseAndIdNot(email, excludeId);
+        if (taken) {
+            throw new EmailAlreadyExistsException("Email already in use");
+        }
+    }
+
+    /**
+     * Flushes right away, so that an email taken by a concurrent request between the check and the write
+     * fails here on the unique index and is reported like the check would have.
+     */
+    private User saveWithUniqueEmail(User user) {
+        try {
+            return userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            if (isEmailViolation(e)) {
+                throw new EmailAlreadyExistsException("Email already in use");
+            }
+            throw e;
+        }
+    }
+
+    private static boolean isEmailViolation(DataIntegrityViolationException e) {
+        String message = NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+        return message != null && message.toLowerCase(Locale.ROOT).contains(User.EMAIL_CONSTRAINT);
     }
-}
\ No newline at end of file
+}
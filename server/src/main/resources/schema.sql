@@ -1,15 +1,24 @@
 DROP TABLE IF EXISTS comments CASCADE;
+DROP TABLE IF EXISTS item_booking_summary CASCADE;
+DROP TABLE IF EXISTS booking_slots CASCADE;
+DROP TABLE IF EXISTS bookings_archive CASCADE;
 DROP TABLE IF EXISTS bookings CASCADE;
 DROP TABLE IF EXISTS items CASCADE;
 DROP TABLE IF EXISTS item_requests CASCADE;
 DROP TABLE IF EXISTS users CASCADE;
 
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
 CREATE TABLE IF NOT EXISTS users (
   id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
   name VARCHAR(255) NOT NULL,
-  email VARCHAR(512) NOT NULL UNIQUE
+  email VARCHAR(512) NOT NULL
 );
 
+-- Emails are unique regardless of case; UserRepository looks them up by lower(email) through this index.
+CREATE UNIQUE INDEX IF NOT EXISTS ux_users_email_lower ON users (lower(email));
+
 CREATE TABLE IF NOT EXISTS item_requests (
   id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
   description TEXT NOT NULL,
@@ -28,6 +37,10 @@ CREATE TABLE IF NOT EXISTS items (
   available BOOLEAN NOT NULL,
   owner_id BIGINT NOT NULL,
   request_id BIGINT,
+  search_vector TSVECTOR GENERATED ALWAYS AS (
+    setweight(to_tsvector('russian', name), 'A') ||
+    setweight(to_tsvector('russian', description), 'B')
+  ) STORED,
   CONSTRAINT fk_item_owner
     FOREIGN KEY (owner_id)
     REFERENCES users (id)
@@ -38,13 +51,28 @@ CREATE TABLE IF NOT EXISTS items (
     ON DELETE SET NULL
 );
 
+CREATE INDEX IF NOT EXISTS idx_items_search_vector ON items USING GIN (search_vector);
+CREATE INDEX IF NOT EXISTS idx_items_name_trgm ON items
+  USING GIN (lower(name) gin_trgm_ops) WHERE available = TRUE;
+CREATE INDEX IF NOT EXISTS idx_items_description_trgm ON items
+  USING GIN (lower(description) gin_trgm_ops) WHERE available = TRUE;
+
+-- Bookings are range-partitioned by start_time. BookingPartitionManager adds monthly partitions ahead of
+-- time and drops old ones once BookingArchiver has moved their rows to bookings_archive; rows outside every
+-- monthly partition land in bookings_default. The primary key must include the partition key, and an
+-- exclusion constraint on a partitioned table would only hold within one partition, so overlaps are enforced
+-- by booking_slots below instead.
+CREATE SEQUENCE IF NOT EXISTS bookings_id_seq;
+
 CREATE TABLE IF NOT EXISTS bookings (
-  id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+  id BIGINT NOT NULL DEFAULT nextval('bookings_id_seq'),
   start_time TIMESTAMP NOT NULL,
   end_time TIMESTAMP NOT NULL,
   item_id BIGINT NOT NULL,
   booker_id BIGINT NOT NULL,
   status VARCHAR(20) NOT NULL,
+  version BIGINT NOT NULL DEFAULT 0,
+  PRIMARY KEY (id, start_time),
   CONSTRAINT fk_booking_item
     FOREIGN KEY (item_id)
     REFERENCES items (id)
@@ -53,8 +81,97 @@ CREATE TABLE IF NOT EXISTS bookings (
     FOREIGN KEY (booker_id)
     REFERENCES users (id)
     ON DELETE CASCADE
+) PARTITION BY RANGE (start_time);
+
+ALTER SEQUENCE bookings_id_seq OWNED BY bookings.id;
+
+CREATE TABLE IF NOT EXISTS bookings_default PARTITION OF bookings DEFAULT;
+
+-- The period of every waiting or approved booking, in one unpartitioned table, so the exclusion constraint
+-- also catches bookings that start in different partitions. The trigger keeps it in step with bookings in
+-- the same transaction; archived bookings have ended and never come back, so the archiver's delete frees
+-- their slots.
+CREATE TABLE IF NOT EXISTS booking_slots (
+  booking_id BIGINT PRIMARY KEY,
+  item_id BIGINT NOT NULL,
+  period TSRANGE NOT NULL,
+  CONSTRAINT fk_booking_slot_item
+    FOREIGN KEY (item_id)
+    REFERENCES items (id)
+    ON DELETE CASCADE,
+  CONSTRAINT ex_bookings_no_overlap EXCLUDE USING GIST (item_id WITH =, period WITH &&)
 );
 
+-- Spring's script splitter does not know dollar quoting, so the body is a plain string literal.
+CREATE OR REPLACE FUNCTION sync_booking_slot() RETURNS TRIGGER LANGUAGE plpgsql AS '
+BEGIN
+  IF TG_OP <> ''INSERT'' THEN
+    DELETE FROM booking_slots WHERE booking_id = OLD.id;
+  END IF;
+  IF TG_OP <> ''DELETE'' AND NEW.status IN (''WAITING'', ''APPROVED'') THEN
+    INSERT INTO booking_slots (booking_id, item_id, period)
+    VALUES (NEW.id, NEW.item_id, tsrange(NEW.start_time, NEW.end_time));
+  END IF;
+  RETURN NULL;
+END;
+';
+
+CREATE OR REPLACE TRIGGER trg_bookings_slot
+  AFTER INSERT OR DELETE OR UPDATE OF status, start_time, end_time, item_id ON bookings
+  FOR EACH ROW EXECUTE FUNCTION sync_booking_slot();
+
+CREATE INDEX IF NOT EXISTS idx_items_owner ON items (owner_id);
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_start ON bookings (booker_id, start_time DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_bookings_item_start ON bookings (item_id, start_time DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_item_end ON bookings (booker_id, item_id, end_time)
+  WHERE status = 'APPROVED';
+CREATE INDEX IF NOT EXISTS idx_bookings_end ON bookings (end_time);
+
+-- Bookings that ended more than shareit.booking-archive.months ago. Archived rows are never updated, so the
+-- table is not partitioned and keeps neither a version nor the overlap constraint.
+CREATE TABLE IF NOT EXISTS bookings_archive (
+  id BIGINT PRIMARY KEY,
+  start_time TIMESTAMP NOT NULL,
+  end_time TIMESTAMP NOT NULL,
+  item_id BIGINT NOT NULL,
+  booker_id BIGINT NOT NULL,
+  status VARCHAR(20) NOT NULL,
+  CONSTRAINT fk_archived_booking_item
+    FOREIGN KEY (item_id)
+    REFERENCES items (id)
+    ON DELETE CASCADE,
+  CONSTRAINT fk_archived_booking_user
+    FOREIGN KEY (booker_id)
+    REFERENCES users (id)
+    ON DELETE CASCADE
+);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_archive_booker_start ON bookings_archive (booker_id, start_time DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_bookings_archive_item_start ON bookings_archive (item_id, start_time DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_bookings_archive_booker_item_end ON bookings_archive (booker_id, item_id, end_time)
+  WHERE status = 'APPROVED';
+
+-- Last finished and next upcoming booking per item, maintained by ItemBookingSummaryUpdater. Rows whose
+-- valid_until has passed are ignored by readers and recomputed by the roll-forward job.
+CREATE TABLE IF NOT EXISTS item_booking_summary (
+  item_id BIGINT PRIMARY KEY,
+  last_booking_id BIGINT,
+  last_booker_id BIGINT,
+  last_start TIMESTAMP,
+  last_end TIMESTAMP,
+  next_booking_id BIGINT,
+  next_booker_id BIGINT,
+  next_start TIMESTAMP,
+  next_end TIMESTAMP,
+  valid_until TIMESTAMP,
+  CONSTRAINT fk_summary_item
+    FOREIGN KEY (item_id)
+    REFERENCES items (id)
+    ON DELETE CASCADE
+);
+
+CREATE INDEX IF NOT EXISTS idx_item_booking_summary_valid_until ON item_booking_summary (valid_until);
+
 CREATE TABLE IF NOT EXISTS comments (
   id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
   text TEXT NOT NULL,
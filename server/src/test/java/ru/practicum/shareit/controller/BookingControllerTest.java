@@ -8,16 +8,23 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import ru.practicum.shareit.booking.controller.BookingController;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
 import ru.practicum.shareit.booking.model.StatusBooking;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.booking.stream.BookingEventStream;
 import ru.practicum.shareit.exception.BadRequestException;
 import ru.practicum.shareit.exception.BookingNotFoundException;
+import ru.practicum.shareit.exception.BookingOverlapException;
 import ru.practicum.shareit.exception.OwnerNotFoundException;
 import ru.practicum.shareit.exception.UserNotFoundException;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.pagination.CursorPage;
 import ru.practicum.shareit.user.dto.UserDto;
 
 import java.time.LocalDateTime;
@@ -36,11 +43,14 @@ class BookingControllerTest {
     @MockBean
     private BookingService bookingService;
 
+    @MockBean
+    private BookingEventStream bookingEventStream;
+
     @Autowired
     private ObjectMapper mapper;
 
     private final UserDto userDto = new UserDto(1L, "User", "user@example.com");
-    private final ItemDto itemDto = new ItemDto(1L, "Item", "Desc", true, null, null, List.of(), null);
+    private final ItemDto itemDto = new ItemDto(1L, "Item", "Desc", true, null, null, List.of(), null, null);
     private final BookingResponseDto bookingResponse = new BookingResponseDto(
             1L,
             LocalDateTime.of(2025, 7, 20, 12, 0),
@@ -84,6 +94,57 @@ class BookingControllerTest {
                 .andExpect(jsonPath("$.status").value("APPROVED"));
     }
 
+    @Test
+    void getBookingSummaries_shouldReturnCountPerState() throws Exception {
+        Mockito.when(bookingService.getBookingSummaryByBooker(1L)).thenReturn(new BookingSummaryDto(6, 1, 2, 1, 1, 1));
+        Mockito.when(bookingService.getBookingSummaryByOwner(2L)).thenReturn(new BookingSummaryDto(3, 0, 0, 3, 2, 0));
+
+        mvc.perform(get("/bookings/summary").header("X-Sharer-User-Id", 1L))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.all").value(6))
+                .andExpect(jsonPath("$.past").value(2))
+                .andExpect(jsonPath("$.rejected").value(1));
+        mvc.perform(get("/bookings/owner/summary").header("X-Sharer-User-Id", 2L))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.future").value(3))
+                .andExpect(jsonPath("$.waiting").value(2));
+    }
+
+    @Test
+    void approveBookings_shouldReturnOutcomePerDecision() throws Exception {
+        List<BookingDecisionDto> decisions = List.of(new BookingDecisionDto(1L, true), new BookingDecisionDto(2L, false));
+        Mockito.when(bookingService.approveBookings(1L, decisions)).thenReturn(List.of(
+                BookingDecisionResultDto.applied(bookingResponse),
+                BookingDecisionResultDto.failed(2L, "Booking already processed: APPROVED")));
+
+        mvc.perform(patch("/bookings/batch")
+                        .header("X-Sharer-User-Id", 1L)
+                        .content(mapper.writeValueAsString(decisions))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].booking.id").value(1L))
+                .andExpect(jsonPath("$[1].bookingId").value(2L))
+                .andExpect(jsonPath("$[1].error").value("Booking already processed: APPROVED"));
+    }
+
+    @Test
+    void streamEvents_shouldStartEventStream() throws Exception {
+        Mockito.when(bookingEventStream.subscribe(1L)).thenReturn(new SseEmitter());
+
+        mvc.perform(get("/bookings/events")
+                        .header("X-Sharer-User-Id", 1L))
+                .andExpect(request().asyncStarted());
+    }
+
+    @Test
+    void streamEvents_unknownUser_shouldReturn404() throws Exception {
+        Mockito.when(bookingEventStream.subscribe(99L)).thenThrow(new UserNotFoundException("User not found: 99"));
+
+        mvc.perform(get("/bookings/events")
+                        .header("X-Sharer-User-Id", 99L))
+                .andExpect(status().isNotFound());
+    }
+
     @Test
     void getBookingById_shouldReturnBooking() throws Exception {
         Mockito.when(bookingService.getBookingById(1L, 1L)).thenReturn(bookingResponse);
@@ -96,7 +157,8 @@ class BookingControllerTest {
 
     @Test
     void getBookingsByBooker_shouldReturnList() throws Exception {
-        Mockito.when(bookingService.getBookingsByBooker(1L, "ALL")).thenReturn(List.of(bookingResponse));
+        Mockito.when(bookingService.getBookingsByBooker(1L, "ALL", 0, 10, null))
+                .thenReturn(new CursorPage<>(List.of(bookingResponse), null));
 
         mvc.perform(get("/bookings")
                         .header("X-Sharer-User-Id", 1L)
@@ -107,15 +169,31 @@ class BookingControllerTest {
 
     @Test
     void getBookingsByOwner_shouldReturnList() throws Exception {
-        Mockito.when(bookingService.getBookingsByOwner(1L, "ALL")).thenReturn(List.of(bookingResponse));
+        Mockito.when(bookingService.getBookingsByOwner(1L, "ALL", 0, 10, null))
+                .thenReturn(new CursorPage<>(List.of(bookingResponse), "next"));
 
         mvc.perform(get("/bookings/owner")
                         .header("X-Sharer-User-Id", 1L)
                         .param("state", "ALL"))
                 .andExpect(status().isOk())
+                .andExpect(header().string(CursorPage.NEXT_CURSOR_HEADER, "next"))
                 .andExpect(jsonPath("$.size()").value(1));
     }
 
+    @Test
+    void getBookings_invalidPaging_shouldReturn400() throws Exception {
+        mvc.perform(get("/bookings")
+                        .header("X-Sharer-User-Id", 1L)
+                        .param("size", "0"))
+                .andExpect(status().isBadRequest());
+        mvc.perform(get("/bookings/owner")
+                        .header("X-Sharer-User-Id", 1L)
+                        .param("from", "-1"))
+                .andExpect(status().isBadRequest());
+
+        Mockito.verifyNoInteractions(bookingService);
+    }
+
     @Test
     void createBooking_userNotFound_shouldReturn404() throws Exception {
         BookingCreateDto createDto = new BookingCreateDto(1L, bookingResponse.getStart(), bookingResponse.getEnd());
@@ -130,6 +208,20 @@ class BookingControllerTest {
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    void createBooking_overlapping_shouldReturn409() throws Exception {
+        BookingCreateDto createDto = new BookingCreateDto(1L, bookingResponse.getStart(), bookingResponse.getEnd());
+
+        Mockito.when(bookingService.createBooking(anyLong(), any()))
+                .thenThrow(new BookingOverlapException("Item 1 is already booked for this period"));
+
+        mvc.perform(post("/bookings")
+                        .header("X-Sharer-User-Id", 2L)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(createDto)))
+                .andExpect(status().isConflict());
+    }
+
     @Test
     void approveBooking_ownerNotFound_shouldReturn403() throws Exception {
         Mockito.when(bookingService.approveBooking(anyLong(), anyLong(), anyBoolean()))
@@ -0,0 +1,173 @@
+package ru.practicum.shareit.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.util.unit.DataSize;
+import ru.practicum.shareit.exception.BadRequestException;
+import ru.practicum.shareit.idempotency.IdempotencyKeyFilter;
+import ru.practicum.shareit.item.controller.ItemController;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(ItemController.class)
+class IdempotencyKeyFilterTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ItemService itemService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final ItemDto itemDto = ItemDto.builder().name("Дрель").description("Ударная").available(true).build();
+
+    @Test
+    void retryWithSameKey_shouldReplayFirstResponse() throws Exception {
+        Mockito.when(itemService.createItem(any(), anyLong()))
+                .thenReturn(ItemDto.builder().id(1L).name("Дрель").build())
+                .thenReturn(ItemDto.builder().id(2L).name("Дрель").build());
+
+        createItem(1L, "replay-key", itemDto)
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(IdempotencyKeyFilter.REPLAYED_HEADER))
+                .andExpect(jsonPath("$.id").value(1));
+        createItem(1L, "replay-key", itemDto)
+                .andExpect(status().isOk())
+                .andExpect(header().string(IdempotencyKeyFilter.REPLAYED_HEADER, "true"))
+                .andExpect(jsonPath("$.id").value(1));
+
+        Mockito.verify(itemService, Mockito.times(1)).createItem(any(), anyLong());
+    }
+
+    @Test
+    void sameKeyForAnotherBody_shouldBeRejected() throws Exception {
+        Mockito.when(itemService.createItem(any(), anyLong())).thenReturn(ItemDto.builder().id(1L).build());
+        createItem(1L, "reused-key", itemDto).andExpect(status().isOk());
+
+        createItem(1L, "reused-key", ItemDto.builder().name("Пила").description("Ручная").available(true).build())
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(jsonPath("$.error").exists());
+        Mockito.verify(itemService, Mockito.times(1)).createItem(any(), anyLong());
+    }
+
+    @Test
+    void keys_shouldBeScopedToUserAndNotKeepFailures() throws Exception {
+        Mockito.when(itemService.createItem(any(), anyLong()))
+                .thenThrow(new BadRequestException("Поле 'available' обязательно"))
+                .thenReturn(ItemDto.builder().id(1L).build())
+                .thenReturn(ItemDto.builder().id(2L).build());
+
+        createItem(1L, "scoped-key", itemDto).andExpect(status().isBadRequest());
+        createItem(1L, "scoped-key", itemDto).andExpect(jsonPath("$.id").value(1));
+        createItem(2L, "scoped-key", itemDto).andExpect(jsonPath("$.id").value(2));
+
+        Mockito.verify(itemService, Mockito.times(3)).createItem(any(), anyLong());
+    }
+
+    @Test
+    void bufferedBody_shouldSupportNonBlockingReaders() throws Exception {
+        IdempotencyKeyFilter filter = filter(DataSize.ofKilobytes(1));
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/items");
+        request.addHeader(IdempotencyKeyFilter.HEADER, "async-key");
+        request.setContent("{\"name\":\"Дрель\"}".getBytes(StandardCharsets.UTF_8));
+        ByteArrayOutputStream read = new ByteArrayOutputStream();
+        List<String> callbacks = new ArrayList<>();
+
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+            ServletInputStream in = req.getInputStream();
+            in.setReadListener(new ReadListener() {
+                @Override
+                public void onDataAvailable() throws IOException {
+                    callbacks.add("data");
+                    while (in.isReady() && !in.isFinished()) {
+                        read.write(in.read());
+                    }
+                }
+
+                @Override
+                public void onAllDataRead() {
+                    callbacks.add("done");
+                }
+
+                @Override
+                public void onError(Throwable t) {
+                    callbacks.add("error");
+                }
+            });
+        });
+
+        assertThat(callbacks).containsExactly("data", "done");
+        assertThat(read.toString(StandardCharsets.UTF_8)).isEqualTo("{\"name\":\"Дрель\"}");
+    }
+
+    @Test
+    void oversizedBody_shouldBeRejectedBeforeBuffering() throws Exception {
+        IdempotencyKeyFilter filter = filter(DataSize.ofBytes(8));
+        byte[] body = "{\"name\":\"Дрель\"}".getBytes(StandardCharsets.UTF_8);
+        MockHttpServletRequest declared = new MockHttpServletRequest("POST", "/items");
+        declared.addHeader(IdempotencyKeyFilter.HEADER, "large-key");
+        declared.setContent(body);
+        MockHttpServletRequest chunked = new MockHttpServletRequest("POST", "/items") {
+            @Override
+            public long getContentLengthLong() {
+                return -1;
+            }
+        };
+        chunked.addHeader(IdempotencyKeyFilter.HEADER, "chunked-key");
+        chunked.setContent(body);
+        MockHttpServletResponse declaredResponse = new MockHttpServletResponse();
+        MockHttpServletResponse chunkedResponse = new MockHttpServletResponse();
+
+        filter.doFilter(declared, declaredResponse, (req, res) -> {
+            throw new AssertionError("oversized body reached the controller");
+        });
+        filter.doFilter(chunked, chunkedResponse, (req, res) -> {
+            throw new AssertionError("oversized body reached the controller");
+        });
+
+        assertThat(declaredResponse.getStatus()).isEqualTo(413);
+        assertThat(chunkedResponse.getStatus()).isEqualTo(413);
+        assertThat(chunked.getInputStream().available()).isPositive();
+    }
+
+    private IdempotencyKeyFilter filter(DataSize maxBodySize) {
+        return new IdempotencyKeyFilter(Duration.ofMinutes(1), 10, maxBodySize,
+                new StaticListableBeanFactory().getBeanProvider(MeterRegistry.class), objectMapper);
+    }
+
+    private ResultActions createItem(Long userId, String key, ItemDto body) throws Exception {
+        return mockMvc.perform(post("/items")
+                .contentType(MediaType.APPLICATION_JSON)
+                .header("X-Sharer-User-Id", userId)
+                .header(IdempotencyKeyFilter.HEADER, key)
+                .content(objectMapper.writeValueAsString(body)));
+    }
+}
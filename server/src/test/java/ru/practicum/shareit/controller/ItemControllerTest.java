@@ -12,10 +12,16 @@ import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.exception.BadRequestException;
 import ru.practicum.shareit.exception.ItemNotFoundException;
 import ru.practicum.shareit.item.controller.ItemController;
+import ru.practicum.shareit.item.dto.AvailabilityIntervalDto;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
+import ru.practicum.shareit.item.dto.ItemBatchResultDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.pagination.CursorPage;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.List;
 
 import static org.mockito.ArgumentMatchers.*;
@@ -59,6 +65,22 @@ class ItemControllerTest {
                 .andExpect(jsonPath("$.name").value(itemDto.getName()));
     }
 
+    @Test
+    void shouldCreateItemsInBatch() throws Exception {
+        Mockito.when(itemService.createItems(any(), eq(1L))).thenReturn(List.of(
+                ItemBatchResultDto.created(0, itemDto),
+                ItemBatchResultDto.rejected(1, "Название не может быть пустым")));
+
+        mockMvc.perform(post("/items/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("X-Sharer-User-Id", 1L)
+                        .content(objectMapper.writeValueAsString(List.of(itemDto, new ItemDto()))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].item.id").value(1L))
+                .andExpect(jsonPath("$[1].index").value(1))
+                .andExpect(jsonPath("$[1].error").value("Название не может быть пустым"));
+    }
+
     @Test
     void shouldUpdateItem() throws Exception {
         Mockito.when(itemService.updateItem(any(), eq(1L), eq(1L))).thenReturn(itemDto);
@@ -73,7 +95,7 @@ class ItemControllerTest {
 
     @Test
     void shouldGetItemById() throws Exception {
-        Mockito.when(itemService.getItemById(1L, 1L)).thenReturn(itemDto);
+        Mockito.when(itemService.getItemById(1L, 1L, null)).thenReturn(itemDto);
 
         mockMvc.perform(get("/items/1")
                         .header("X-Sharer-User-Id", 1L))
@@ -83,7 +105,7 @@ class ItemControllerTest {
 
     @Test
     void shouldGetAllItemsByOwner() throws Exception {
-        Mockito.when(itemService.getAllItemsByOwner(1L)).thenReturn(List.of(itemDto));
+        Mockito.when(itemService.getAllItemsByOwner(1L, null)).thenReturn(List.of(itemDto));
 
         mockMvc.perform(get("/items")
                         .header("X-Sharer-User-Id", 1L))
@@ -93,15 +115,86 @@ class ItemControllerTest {
 
     @Test
     void shouldSearchItems() throws Exception {
-        Mockito.when(itemService.searchItems("дрель")).thenReturn(List.of(itemDto));
+        Mockito.when(itemService.searchItems("дрель", 0, 10, null))
+                .thenReturn(new CursorPage<>(List.of(itemDto), "next"));
 
         mockMvc.perform(get("/items/search")
                         .param("text", "дрель")
                         .header("X-Sharer-User-Id", 1L))
                 .andExpect(status().isOk())
+                .andExpect(header().string(CursorPage.NEXT_CURSOR_HEADER, "next"))
                 .andExpect(jsonPath("$[0].description").value("Ударная дрель"));
     }
 
+    @Test
+    void searchAndComments_invalidPaging_shouldReturn400() throws Exception {
+        mockMvc.perform(get("/items/search")
+                        .param("text", "дрель")
+                        .param("size", "0"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/items/search")
+                        .param("text", "дрель")
+                        .param("from", "-1"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/items/1/comments")
+                        .param("size", "0"))
+                .andExpect(status().isBadRequest());
+
+        Mockito.verifyNoInteractions(itemService);
+    }
+
+    @Test
+    void commentsLimit_outOfRange_shouldReturn400() throws Exception {
+        mockMvc.perform(get("/items/1")
+                        .header("X-Sharer-User-Id", 1L)
+                        .param("commentsLimit", "-1"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/items/1")
+                        .header("X-Sharer-User-Id", 1L)
+                        .param("commentsLimit", "101"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/items")
+                        .header("X-Sharer-User-Id", 1L)
+                        .param("commentsLimit", "-1"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/items")
+                        .header("X-Sharer-User-Id", 1L)
+                        .param("commentsLimit", "2147483647"))
+                .andExpect(status().isBadRequest());
+
+        Mockito.verifyNoInteractions(itemService);
+    }
+
+    @Test
+    void shouldGetAvailability() throws Exception {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+        LocalDateTime to = from.plusDays(3);
+        Mockito.when(itemService.getAvailability(1L, from, to)).thenReturn(new ItemAvailabilityDto(1L, from, to,
+                List.of(new AvailabilityIntervalDto(from.plusDays(1), from.plusDays(2))),
+                List.of(new AvailabilityIntervalDto(from, from.plusDays(1)),
+                        new AvailabilityIntervalDto(from.plusDays(2), to))));
+
+        mockMvc.perform(get("/items/1/availability")
+                        .param("from", "2030-01-01T00:00:00")
+                        .param("to", "2030-01-04T00:00"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.busy[0].start").value("2030-01-02T00:00:00"))
+                .andExpect(jsonPath("$.free.length()").value(2));
+    }
+
+    @Test
+    void shouldGetNextFreeSlot() throws Exception {
+        LocalDateTime start = LocalDateTime.of(2030, 1, 2, 0, 0);
+        Mockito.when(itemService.getNextFreeSlot(1L, null, Duration.ofHours(3)))
+                .thenReturn(new AvailabilityIntervalDto(start, start.plusHours(3)));
+
+        mockMvc.perform(get("/items/1/availability/next")
+                        .param("length", "PT3H"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.start").value("2030-01-02T00:00:00"))
+                .andExpect(jsonPath("$.end").value("2030-01-02T03:00:00"));
+    }
+
     @Test
     void shouldAddComment() throws Exception {
         CommentDto comment = new CommentDto(1L, "Отличная вещь", "Автор", null);
@@ -119,7 +212,7 @@ class ItemControllerTest {
 
     @Test
     void getItemById_notFound_shouldReturn404() throws Exception {
-        Mockito.when(itemService.getItemById(99L, 1L))
+        Mockito.when(itemService.getItemById(99L, 1L, null))
                 .thenThrow(new ItemNotFoundException("Item not found"));
 
         mockMvc.perform(get("/items/99")
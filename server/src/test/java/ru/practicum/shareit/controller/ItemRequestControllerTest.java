@@ -39,7 +39,7 @@ class ItemRequestControllerTest {
             "Нужна отвертка",
             1L,
             LocalDateTime.of(2025, 7, 12, 12, 0),
-            List.of(new ItemDto(1L, "Отвертка", "Крестовая", true, null, null, List.of(), 1L))
+            List.of(new ItemDto(1L, "Отвертка", "Крестовая", true, null, null, List.of(), 1L, null))
     );
 
     @Test
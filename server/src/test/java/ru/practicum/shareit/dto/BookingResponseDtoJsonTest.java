@@ -27,7 +27,7 @@ class BookingResponseDtoJsonTest {
                 LocalDateTime.of(2025, 7, 14, 12, 0),
                 StatusBooking.APPROVED,
                 new UserDto(1L, "User", "user@example.com"),
-                new ItemDto(2L, "Item", "Desc", true, null, null, null, null)
+                new ItemDto(2L, "Item", "Desc", true, null, null, null, null, null)
         );
 
         String json = objectMapper.writeValueAsString(dto);
@@ -9,7 +9,7 @@ class ExceptionTest {
     @Test
     void customExceptions_shouldStoreMessages() {
         assertThat(new BadRequestException("bad").getMessage()).isEqualTo("bad");
-        assertThat(new BookingAlreadyApprovedException("approved").getMessage()).isEqualTo("approved");
+        assertThat(new BookingStatusConflictException("processed").getMessage()).isEqualTo("processed");
         assertThat(new OwnerNotFoundException("owner").getMessage()).isEqualTo("owner");
         assertThat(new ItemNotFoundException("item").getMessage()).isEqualTo("item");
         assertThat(new UserNotFoundException("user").getMessage()).isEqualTo("user");
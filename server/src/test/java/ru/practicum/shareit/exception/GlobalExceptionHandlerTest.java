@@ -1,6 +1,7 @@
 package ru.practicum.shareit.exception;
 
 import org.junit.jupiter.api.Test;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import ru.practicum.shareit.errors.ErrorResponse;
@@ -72,9 +73,9 @@ class GlobalExceptionHandlerTest {
     }
 
     @Test
-    void handleBookingAlreadyApproved_shouldReturn404() {
-        BookingAlreadyApprovedException ex = new BookingAlreadyApprovedException("request");
-        ResponseEntity<ErrorResponse> response = handler.handleBookingAlreadyApproved(ex);
+    void handleBadRequest_shouldReturn400() {
+        BadRequestException ex = new BadRequestException("request");
+        ResponseEntity<ErrorResponse> response = handler.handleBadRequest(ex);
 
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
         assertThat(response.getBody()).isNotNull();
@@ -82,12 +83,21 @@ class GlobalExceptionHandlerTest {
     }
 
     @Test
-    void handleBadRequest_shouldReturn400() {
-        BadRequestException ex = new BadRequestException("request");
-        ResponseEntity<ErrorResponse> response = handler.handleBadRequest(ex);
+    void handleBookingStatusConflict_shouldReturn409() {
+        BookingStatusConflictException ex = new BookingStatusConflictException("raced");
+        ResponseEntity<ErrorResponse> response = handler.handleBookingStatusConflict(ex);
 
-        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+        assertThat(response.getBody()).isNotNull();
+        assertThat(response.getBody().getError()).isEqualTo("raced");
+    }
+
+    @Test
+    void handleOptimisticLockingFailure_shouldReturn409() {
+        ResponseEntity<ErrorResponse> response = handler.handleOptimisticLockingFailure(
+                new OptimisticLockingFailureException("stale"));
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
         assertThat(response.getBody()).isNotNull();
-        assertThat(response.getBody().getError()).isEqualTo("request");
     }
-}
\ No newline at end of file
+}
@@ -46,7 +46,8 @@ class BookingMapperTest {
                 LocalDateTime.of(2025, 8, 11, 10, 0),
                 item,
                 user,
-                StatusBooking.REJECTED
+                StatusBooking.REJECTED,
+                0L
         );
 
         // when
@@ -0,0 +1,62 @@
+package ru.practicum.shareit.mapper;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.dto.BookingInterval;
+import ru.practicum.shareit.item.dto.AvailabilityIntervalDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
+import ru.practicum.shareit.item.mapper.ItemAvailabilityMapper;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ItemAvailabilityMapperTest {
+    private static final LocalDateTime T = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+    @Test
+    void toDto_shouldClipAndMergeOverlappingIntervals() {
+        ItemAvailabilityDto dto = ItemAvailabilityMapper.toDto(1L, T, T.plusHours(10), List.of(
+                new BookingInterval(1L, T.minusHours(2), T.plusHours(1)),
+                new BookingInterval(2L, T.plusHours(3), T.plusHours(6)),
+                new BookingInterval(3L, T.plusHours(4), T.plusHours(5)),
+                new BookingInterval(4L, T.plusHours(6), T.plusHours(7)),
+                new BookingInterval(5L, T.plusHours(9), T.plusHours(12))
+        ));
+
+        assertThat(dto.getBusy()).containsExactly(
+                new AvailabilityIntervalDto(T, T.plusHours(1)),
+                new AvailabilityIntervalDto(T.plusHours(3), T.plusHours(7)),
+                new AvailabilityIntervalDto(T.plusHours(9), T.plusHours(10)));
+        assertThat(dto.getFree()).containsExactly(
+                new AvailabilityIntervalDto(T.plusHours(1), T.plusHours(3)),
+                new AvailabilityIntervalDto(T.plusHours(7), T.plusHours(9)));
+    }
+
+    @Test
+    void toDto_withoutBookings_shouldReturnWholeWindowFree() {
+        ItemAvailabilityDto dto = ItemAvailabilityMapper.toDto(1L, T, T.plusDays(1), List.of());
+
+        assertThat(dto.getBusy()).isEmpty();
+        assertThat(dto.getFree()).containsExactly(new AvailabilityIntervalDto(T, T.plusDays(1)));
+    }
+
+    @Test
+    void toNextFreeSlot_shouldSkipIntervalsThatLeaveNoRoom() {
+        List<BookingInterval> booked = List.of(
+                new BookingInterval(1L, T.minusHours(1), T.plusHours(2)),
+                new BookingInterval(2L, T.plusHours(1), T.plusHours(4)),
+                new BookingInterval(3L, T.plusHours(5), T.plusHours(6)),
+                new BookingInterval(4L, T.plusHours(9), T.plusHours(10)));
+
+        assertThat(ItemAvailabilityMapper.toNextFreeSlot(T, Duration.ofHours(1), booked))
+                .isEqualTo(new AvailabilityIntervalDto(T.plusHours(4), T.plusHours(5)));
+        assertThat(ItemAvailabilityMapper.toNextFreeSlot(T, Duration.ofHours(2), booked))
+                .isEqualTo(new AvailabilityIntervalDto(T.plusHours(6), T.plusHours(8)));
+        assertThat(ItemAvailabilityMapper.toNextFreeSlot(T, Duration.ofHours(4), booked))
+                .isEqualTo(new AvailabilityIntervalDto(T.plusHours(10), T.plusHours(14)));
+        assertThat(ItemAvailabilityMapper.toNextFreeSlot(T, Duration.ofHours(1), List.of()))
+                .isEqualTo(new AvailabilityIntervalDto(T, T.plusHours(1)));
+    }
+}
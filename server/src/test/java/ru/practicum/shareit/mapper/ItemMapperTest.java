@@ -26,7 +26,7 @@ class ItemMapperTest {
 
     @Test
     void toItem_shouldMapCorrectly() {
-        ItemDto dto = new ItemDto(1L, "item", "desc", true, null, null, List.of(), null);
+        ItemDto dto = new ItemDto(1L, "item", "desc", true, null, null, List.of(), null, null);
         User owner = new User(2L, "owner", "o@ex.com");
         ItemRequest request = new ItemRequest();
         request.setId(3L);
@@ -40,7 +40,7 @@ class ItemMapperTest {
 
     @Test
     void toItemDto_withNull_shouldReturnNull() {
-        assertThat(ItemMapper.toItemDto(null)).isNull();
+        assertThat(ItemMapper.toItemDto((Item) null)).isNull();
     }
 
     @Test
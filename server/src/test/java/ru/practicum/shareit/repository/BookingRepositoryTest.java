@@ -1,19 +1,34 @@
 package ru.practicum.shareit.repository;
 
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
+import ru.practicum.shareit.booking.dto.BookingView;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingArchive;
+import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.model.StatusBooking;
+import ru.practicum.shareit.booking.repository.BookingArchiveRepository;
+import ru.practicum.shareit.booking.repository.BookingQuery;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.dto.BookingShortView;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -23,12 +38,18 @@ class BookingRepositoryTest {
     @Autowired
     private BookingRepository bookingRepo;
 
+    @Autowired
+    private BookingArchiveRepository archiveRepo;
+
     @Autowired
     private UserRepository userRepo;
 
     @Autowired
     private ItemRepository itemRepo;
 
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
     private User owner;
     private User booker;
     private Item item;
@@ -45,65 +66,240 @@ class BookingRepositoryTest {
         booker = userRepo.save(new User(null, "Booker", "booker@example.com"));
         item = itemRepo.save(new Item(null, "Вещь", "desc", true, owner, null));
 
-        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+
+        past = bookingRepo.save(new Booking(null, now.minusDays(5), now.minusDays(2), item, booker, StatusBooking.APPROVED, null));
+        current = bookingRepo.save(new Booking(null, now.minusHours(1), now.plusHours(2), item, booker, StatusBooking.APPROVED, null));
+        future = bookingRepo.save(new Booking(null, now.plusDays(1), now.plusDays(3), item, booker, StatusBooking.APPROVED, null));
+        waiting = bookingRepo.save(new Booking(null, now.plusDays(2), now.plusDays(4), item, booker, StatusBooking.WAITING, null));
+        rejected = bookingRepo.save(new Booking(null, now.plusDays(3), now.plusDays(5), item, booker, StatusBooking.REJECTED, null));
+    }
+
+    @Test
+    void findViewById_shouldFlattenBookerAndItem() {
+        BookingView view = bookingRepo.findViewById(current.getId()).orElseThrow();
 
-        past = bookingRepo.save(new Booking(null, now.minusDays(5), now.minusDays(2), item, booker, StatusBooking.APPROVED));
-        current = bookingRepo.save(new Booking(null, now.minusHours(1), now.plusHours(2), item, booker, StatusBooking.APPROVED));
-        future = bookingRepo.save(new Booking(null, now.plusDays(1), now.plusDays(3), item, booker, StatusBooking.APPROVED));
-        waiting = bookingRepo.save(new Booking(null, now.plusDays(2), now.plusDays(4), item, booker, StatusBooking.WAITING));
-        rejected = bookingRepo.save(new Booking(null, now.plusDays(3), now.plusDays(5), item, booker, StatusBooking.REJECTED));
+        assertThat(view.status()).isEqualTo(StatusBooking.APPROVED);
+        assertThat(view.bookerName()).isEqualTo("Booker");
+        assertThat(view.itemName()).isEqualTo("Вещь");
+        assertThat(view.itemRequestId()).isNull();
+        assertThat(view.ownerId()).isEqualTo(owner.getId());
     }
 
     @Test
-    void findAllByBookerIdOrderByStartDesc() {
-        List<Booking> result = bookingRepo.findAllByBookerIdOrderByStartDesc(booker.getId());
-        assertThat(result).containsExactly(rejected, waiting, future, current, past);
+    void findViews_byBooker_shouldReturnNewestFirst() {
+        List<BookingView> result = bookingRepo.findViews(byBooker().build());
+        assertThat(result).extracting(BookingView::id)
+                .containsExactly(rejected.getId(), waiting.getId(), future.getId(), current.getId(), past.getId());
     }
 
     @Test
-    void findAllByBookerIdAndStatusOrderByStartDesc() {
-        List<Booking> waitingList = bookingRepo.findAllByBookerIdAndStatusOrderByStartDesc(booker.getId(), StatusBooking.WAITING);
-        assertThat(waitingList).containsExactly(waiting);
+    void findViews_byStatus_shouldFilterByStatus() {
+        List<BookingView> waitingList = bookingRepo.findViews(byBooker().state(BookingState.WAITING).build());
+        assertThat(waitingList).extracting(BookingView::id).containsExactly(waiting.getId());
     }
 
     @Test
-    void findAllByBookerIdAndStartBeforeAndEndAfterOrderByStartDesc() {
+    void findViews_byTimeStates_shouldCompareWithNow() {
         LocalDateTime now = LocalDateTime.now();
-        List<Booking> currentList = bookingRepo.findAllByBookerIdAndStartBeforeAndEndAfterOrderByStartDesc(booker.getId(), now, now);
-        assertThat(currentList).containsExactly(current);
+        assertThat(bookingRepo.findViews(byBooker().state(BookingState.CURRENT).now(now).build()))
+                .extracting(BookingView::id).containsExactly(current.getId());
+        assertThat(bookingRepo.findViews(byBooker().state(BookingState.PAST).now(now).build()))
+                .extracting(BookingView::id).containsExactly(past.getId());
+        assertThat(bookingRepo.findViews(byBooker().state(BookingState.FUTURE).now(now).build()))
+                .extracting(BookingView::id).containsExactly(rejected.getId(), waiting.getId(), future.getId());
+    }
+
+    @Test
+    void findViews_byOwner_shouldReturnNewestFirst() {
+        List<BookingView> ownerBookings = bookingRepo.findViews(BookingQuery.builder()
+                .role(BookingQuery.Role.OWNER).userId(owner.getId()).limit(10).build());
+        assertThat(ownerBookings).extracting(BookingView::id)
+                .containsExactly(rejected.getId(), waiting.getId(), future.getId(), current.getId(), past.getId());
+        assertThat(bookingRepo.findViews(BookingQuery.builder()
+                .role(BookingQuery.Role.OWNER).userId(booker.getId()).limit(10).build())).isEmpty();
+    }
+
+    @Test
+    void findViews_withItemAndRange_shouldCombineFilters() {
+        Item other = itemRepo.save(new Item(null, "Другая", "desc", true, owner, null));
+        Booking elsewhere = bookingRepo.save(new Booking(null, future.getStart(), future.getEnd(), other, booker,
+                StatusBooking.APPROVED, null));
+
+        List<BookingView> inRange = bookingRepo.findViews(byBooker()
+                .from(future.getStart().plusHours(1)).to(waiting.getStart().plusHours(1)).build());
+        List<BookingView> onOtherItem = bookingRepo.findViews(byBooker().itemId(other.getId()).build());
+
+        assertThat(inRange).extracting(BookingView::id)
+                .containsExactly(waiting.getId(), elsewhere.getId(), future.getId());
+        assertThat(onOtherItem).extracting(BookingView::id).containsExactly(elsewhere.getId());
+    }
+
+    @Test
+    void findViews_withKeysetAndDirection_shouldSeekPastPosition() {
+        List<BookingView> olderThanFuture = bookingRepo.findViews(byBooker()
+                .afterStart(future.getStart()).afterId(future.getId()).build());
+        List<BookingView> oldestFirst = bookingRepo.findViews(byBooker()
+                .direction(Sort.Direction.ASC).afterStart(current.getStart()).afterId(current.getId()).limit(2).build());
+        List<BookingView> skipped = bookingRepo.findViews(byBooker().offset(3).build());
+
+        assertThat(olderThanFuture).extracting(BookingView::id).containsExactly(current.getId(), past.getId());
+        assertThat(oldestFirst).extracting(BookingView::id).containsExactly(future.getId(), waiting.getId());
+        assertThat(skipped).extracting(BookingView::id).containsExactly(current.getId(), past.getId());
+    }
+
+    @Test
+    void decideIfWaiting_shouldOnlyMoveWaitingBookingAndBumpVersion() {
+        long version = waiting.getVersion();
+
+        int first = bookingRepo.decideIfWaiting(waiting.getId(), StatusBooking.APPROVED);
+        int second = bookingRepo.decideIfWaiting(waiting.getId(), StatusBooking.REJECTED);
+
+        Booking reloaded = bookingRepo.findById(waiting.getId()).orElseThrow();
+        assertThat(first).isEqualTo(1);
+        assertThat(second).isZero();
+        assertThat(reloaded.getStatus()).isEqualTo(StatusBooking.APPROVED);
+        assertThat(reloaded.getVersion()).isEqualTo(version + 1);
+    }
+
+    @Test
+    void decideEachIfWaiting_shouldReturnOnlyTheBookingsItChanged() {
+        Booking second = bookingRepo.save(new Booking(null, LocalDateTime.now().plusDays(6),
+                LocalDateTime.now().plusDays(7), item, booker, StatusBooking.WAITING, null));
+
+        Set<Long> decided = bookingRepo.decideEachIfWaiting(Map.of(
+                waiting.getId(), StatusBooking.APPROVED,
+                second.getId(), StatusBooking.REJECTED,
+                rejected.getId(), StatusBooking.APPROVED));
+
+        assertThat(decided).containsExactlyInAnyOrder(waiting.getId(), second.getId());
+        assertThat(bookingRepo.findById(waiting.getId()).orElseThrow().getStatus()).isEqualTo(StatusBooking.APPROVED);
+        assertThat(bookingRepo.findById(second.getId()).orElseThrow().getStatus()).isEqualTo(StatusBooking.REJECTED);
+        assertThat(bookingRepo.findById(rejected.getId()).orElseThrow().getStatus())
+                .isEqualTo(StatusBooking.REJECTED);
     }
 
     @Test
-    void findAllByBookerIdAndEndBeforeOrderByStartDesc() {
+    void findLastByItemId() {
         LocalDateTime now = LocalDateTime.now();
-        List<Booking> pastList = bookingRepo.findAllByBookerIdAndEndBeforeOrderByStartDesc(booker.getId(), now);
-        assertThat(pastList).containsExactly(past);
+        List<BookingShortView> result = bookingRepo.findLastByItemId(item.getId(), now, PageRequest.of(0, 1));
+        assertThat(result).extracting(BookingShortView::id).containsExactly(past.getId());
     }
 
     @Test
-    void findAllByBookerIdAndStartAfterOrderByStartDesc() {
+    void findNextByItemId() {
         LocalDateTime now = LocalDateTime.now();
-        List<Booking> futureList = bookingRepo.findAllByBookerIdAndStartAfterOrderByStartDesc(booker.getId(), now);
-        assertThat(futureList).containsExactly(rejected, waiting, future);
+        List<BookingShortView> result = bookingRepo.findNextByItemId(item.getId(), now, PageRequest.of(0, 1));
+        assertThat(result).extracting(BookingShortView::id).containsExactly(future.getId());
     }
 
     @Test
-    void findAllByItemOwnerIdOrderByStartDesc() {
-        List<Booking> ownerBookings = bookingRepo.findAllByItemOwnerIdOrderByStartDesc(owner.getId());
-        assertThat(ownerBookings).containsExactly(rejected, waiting, future, current, past);
+    void findLastBookingsByOwnerId() {
+        LocalDateTime now = LocalDateTime.now();
+        List<BookingShortView> result = bookingRepo.findLastBookingsByOwnerId(owner.getId(), now);
+        assertThat(result).extracting(BookingShortView::id).containsExactly(past.getId());
     }
 
     @Test
-    void findFirst1ByItemIdAndEndBeforeOrderByEndDesc() {
+    void findNextBookingsByOwnerId() {
         LocalDateTime now = LocalDateTime.now();
-        List<Booking> result = bookingRepo.findFirst1ByItemIdAndEndBeforeOrderByEndDesc(item.getId(), now);
-        assertThat(result).containsExactly(past);
+        List<BookingShortView> result = bookingRepo.findNextBookingsByOwnerId(owner.getId(), now);
+        assertThat(result).extracting(BookingShortView::id).containsExactly(future.getId());
+    }
+
+    @Test
+    void findLastAndNext_shouldSkipBookingsThatAreNotApproved() {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        bookingRepo.save(new Booking(null, now.minusDays(2), now.minusDays(1), item, booker, StatusBooking.REJECTED, null));
+        bookingRepo.save(new Booking(null, now.plusMinutes(30), now.plusHours(1), item, booker, StatusBooking.REJECTED, null));
+        bookingRepo.save(new Booking(null, now.plusHours(5), now.plusHours(6), item, booker, StatusBooking.WAITING, null));
+
+        assertThat(bookingRepo.findLastByItemId(item.getId(), now, PageRequest.of(0, 1)))
+                .extracting(BookingShortView::id).containsExactly(past.getId());
+        assertThat(bookingRepo.findNextByItemId(item.getId(), now, PageRequest.of(0, 1)))
+                .extracting(BookingShortView::id).containsExactly(future.getId());
+        assertThat(bookingRepo.findLastBookingsByOwnerId(owner.getId(), now))
+                .extracting(BookingShortView::id).containsExactly(past.getId());
+        assertThat(bookingRepo.findNextBookingsByOwnerId(owner.getId(), now))
+                .extracting(BookingShortView::id).containsExactly(future.getId());
+        assertThat(bookingRepo.findEarliestEndAfter(item.getId(), now)).isEqualTo(current.getEnd());
+    }
+
+    @Test
+    void findViews_past_shouldContinueIntoArchive() {
+        BookingArchive archived = archive(1_000_000L, 8);
+
+        List<BookingView> result = bookingRepo.findViews(byBooker().state(BookingState.PAST).build());
+
+        assertThat(result).extracting(BookingView::id).containsExactly(past.getId(), archived.getId());
+        assertThat(result.get(1).bookerName()).isEqualTo("Booker");
+    }
+
+    @Test
+    void findViews_pagedNewestFirst_shouldMergeLiveAndArchivedRows() {
+        BookingArchive older = archive(1_000_000L, 9);
+        BookingArchive newer = archive(1_000_001L, 7);
+
+        List<BookingView> second = bookingRepo.findViews(byBooker().state(BookingState.PAST).offset(1).limit(2).build());
+        List<BookingView> afterCursor = bookingRepo.findViews(byBooker().state(BookingState.ALL)
+                .afterStart(past.getStart()).afterId(past.getId()).limit(5).build());
+
+        assertThat(second).extracting(BookingView::id).containsExactly(newer.getId(), older.getId());
+        assertThat(afterCursor).extracting(BookingView::id).containsExactly(newer.getId(), older.getId());
     }
 
     @Test
-    void findFirst1ByItemIdAndStartAfterOrderByStartAsc() {
+    void findViews_deepOffset_shouldSeekPastSkippedRowsOnBothTables() {
+        BookingArchive older = archive(1_000_000L, 9);
+        BookingArchive newer = archive(1_000_001L, 7);
+        archiveRepo.flush();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        List<BookingView> newestFirst = bookingRepo.findViews(byBooker().offset(5).limit(2).build());
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(4);
+        List<BookingView> oldestFirst = bookingRepo.findViews(byBooker().direction(Sort.Direction.ASC)
+                .offset(1).limit(3).build());
+        List<BookingView> beyondEnd = bookingRepo.findViews(byBooker().offset(7).limit(2).build());
+
+        assertThat(newestFirst).extracting(BookingView::id).containsExactly(newer.getId(), older.getId());
+        assertThat(oldestFirst).extracting(BookingView::id).containsExactly(newer.getId(), past.getId(), current.getId());
+        assertThat(beyondEnd).isEmpty();
+    }
+
+    @Test
+    void findViews_oldestFirst_shouldStartWithArchivedRows() {
+        BookingArchive archived = archive(1_000_000L, 8);
+
+        List<BookingView> result = bookingRepo.findViews(byBooker().direction(Sort.Direction.ASC).limit(2).build());
+
+        assertThat(result).extracting(BookingView::id).containsExactly(archived.getId(), past.getId());
+    }
+
+    @Test
+    void countByState_shouldCountLiveAndArchivedBookings() {
+        archive(1_000_000L, 8);
         LocalDateTime now = LocalDateTime.now();
-        List<Booking> result = bookingRepo.findFirst1ByItemIdAndStartAfterOrderByStartAsc(item.getId(), now);
-        assertThat(result.get(0).getStart()).isAfter(now);
+        archiveRepo.flush();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        BookingSummaryDto byBooker = bookingRepo.countByState(BookingQuery.Role.BOOKER, booker.getId(), now);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        BookingSummaryDto byOwner = bookingRepo.countByState(BookingQuery.Role.OWNER, owner.getId(), now);
+
+        assertThat(byBooker).isEqualTo(new BookingSummaryDto(6, 1, 2, 3, 1, 1));
+        assertThat(byOwner).isEqualTo(byBooker);
+        assertThat(bookingRepo.countByState(BookingQuery.Role.OWNER, booker.getId(), now))
+                .isEqualTo(new BookingSummaryDto(0, 0, 0, 0, 0, 0));
+    }
+
+    private BookingArchive archive(Long id, int monthsAgo) {
+        LocalDateTime start = past.getStart().minusMonths(monthsAgo);
+        return archiveRepo.save(new BookingArchive(id, start, start.plusDays(1), item, booker, StatusBooking.APPROVED));
+    }
+
+    private BookingQuery.BookingQueryBuilder byBooker() {
+        return BookingQuery.builder().role(BookingQuery.Role.BOOKER).userId(booker.getId()).limit(10);
     }
-}
\ No newline at end of file
+}
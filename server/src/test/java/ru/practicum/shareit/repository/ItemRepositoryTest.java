@@ -3,14 +3,20 @@ package ru.practicum.shareit.repository;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.practicum.shareit.item.dto.ItemView;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.item.search.TrigramItemSearchEngine;
+import ru.practicum.shareit.pagination.CursorPage;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -27,6 +33,9 @@ class ItemRepositoryTest {
     @Autowired
     private ItemRequestRepository requestRepository;
 
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
     @Test
     void shouldFindAllByRequestId() {
         User owner = userRepository.save(new User(null, "Bob", "bob@example.com"));
@@ -40,9 +49,82 @@ class ItemRepositoryTest {
         Item item = new Item(null, "Ladder", "Wooden", true, owner, request);
         itemRepository.save(item);
 
-        List<Item> found = itemRepository.findAllByRequestId(request.getId());
+        List<ItemView> found = itemRepository.findAllByRequestIdIn(List.of(request.getId()));
 
         assertThat(found).hasSize(1);
-        assertThat(found.get(0).getName()).isEqualTo("Ladder");
+        assertThat(found.get(0).name()).isEqualTo("Ladder");
+        assertThat(found.get(0).requestId()).isEqualTo(request.getId());
+    }
+
+    @Test
+    void shouldFindAllByOwnerIdOrderedById() {
+        User owner = userRepository.save(new User(null, "Ann", "ann@example.com"));
+        User other = userRepository.save(new User(null, "Tom", "tom@example.com"));
+
+        Item first = itemRepository.save(new Item(null, "Saw", "Sharp", true, owner, null));
+        itemRepository.save(new Item(null, "Axe", "Heavy", true, other, null));
+        Item second = itemRepository.save(new Item(null, "Drill", "Cordless", false, owner, null));
+
+        List<ItemView> found = itemRepository.findAllByOwnerIdOrderByIdAsc(owner.getId());
+
+        assertThat(found).extracting(ItemView::id).containsExactly(first.getId(), second.getId());
+        assertThat(found).extracting(ItemView::ownerId).containsOnly(owner.getId());
+    }
+
+    @Test
+    void substringSearch_shouldMatchAvailableItemsIgnoringCase() {
+        User owner = userRepository.save(new User(null, "Eva", "eva@example.com"));
+        Item drill = itemRepository.save(new Item(null, "Дрель аккумуляторная", "Для бетона", true, owner, null));
+        Item hammer = itemRepository.save(new Item(null, "Молоток", "Без дрели не обойтись", true, owner, null));
+        itemRepository.save(new Item(null, "Дрель ударная", "В ремонте", false, owner, null));
+
+        List<Item> found = new TrigramItemSearchEngine(itemRepository).search("ДРЕЛ", null, 0, 10).items();
+
+        assertThat(found).containsExactly(drill, hammer);
+    }
+
+    @Test
+    void substringSearch_shouldTreatWildcardsLiterally() {
+        User owner = userRepository.save(new User(null, "Max", "max@example.com"));
+        Item percent = itemRepository.save(new Item(null, "Скидка 50%", "Стремянка", true, owner, null));
+        itemRepository.save(new Item(null, "Скидка 500", "Стремянка", true, owner, null));
+
+        List<Item> found = new TrigramItemSearchEngine(itemRepository).search("50%", null, 0, 10).items();
+
+        assertThat(found).containsExactly(percent);
+        assertThat(new TrigramItemSearchEngine(itemRepository).search("_", null, 0, 10).items()).isEmpty();
+    }
+
+    @Test
+    void substringSearch_shouldSeekPastCursor() {
+        User owner = userRepository.save(new User(null, "Kim", "kim@example.com"));
+        Item first = itemRepository.save(new Item(null, "Тачка садовая", "Одноколёсная", true, owner, null));
+        Item second = itemRepository.save(new Item(null, "Тачка строительная", "Двухколёсная", true, owner, null));
+        Item third = itemRepository.save(new Item(null, "Тачка детская", "Пластиковая", true, owner, null));
+        TrigramItemSearchEngine engine = new TrigramItemSearchEngine(itemRepository);
+
+        CursorPage<Item> page = engine.search("тачка", null, 0, 2);
+        CursorPage<Item> next = engine.search("тачка", page.nextCursor(), 0, 2);
+
+        assertThat(page.items()).containsExactly(first, second);
+        assertThat(next.items()).containsExactly(third);
+        assertThat(next.nextCursor()).isNull();
+    }
+
+    @Test
+    void substringSearch_shouldHonourUnalignedOffsetLikeInMemoryIndex() {
+        User owner = userRepository.save(new User(null, "Lev", "lev@example.com"));
+        List<Item> ladders = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            ladders.add(itemRepository.save(new Item(null, "Стремянка " + i, "Алюминиевая", true, owner, null)));
+        }
+        ItemSearchIndex index = new ItemSearchIndex(itemRepository, transactionManager);
+        index.rebuild();
+
+        List<Item> trigram = new TrigramItemSearchEngine(itemRepository).search("стремянка", null, 1, 3).items();
+        List<Item> memory = index.search("стремянка", null, 1, 3).items();
+
+        assertThat(trigram).containsExactly(ladders.get(1), ladders.get(2), ladders.get(3));
+        assertThat(memory).containsExactlyElementsOf(trigram);
     }
-}
\ No newline at end of file
+}
@@ -4,6 +4,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.request.dto.ItemRequestView;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
@@ -31,13 +32,13 @@ class ItemRequestRepositoryTest {
         requestRepository.save(new ItemRequest(null, "Request A", user1, LocalDateTime.now()));
         requestRepository.save(new ItemRequest(null, "Request B", user2, LocalDateTime.now()));
 
-        List<ItemRequest> own = requestRepository.findAllByRequestorIdOrderByCreatedDesc(user1.getId());
-        List<ItemRequest> other = requestRepository.findAllByRequestorIdNotOrderByCreatedDesc(user1.getId(), PageRequest.of(0, 10));
+        List<ItemRequestView> own = requestRepository.findAllByRequestorIdOrderByCreatedDesc(user1.getId());
+        List<ItemRequestView> other = requestRepository.findAllByRequestorIdNotOrderByCreatedDesc(user1.getId(), PageRequest.of(0, 10));
 
         assertThat(own).hasSize(1);
-        assertThat(own.get(0).getDescription()).isEqualTo("Request A");
+        assertThat(own.get(0).description()).isEqualTo("Request A");
 
         assertThat(other).hasSize(1);
-        assertThat(other.get(0).getDescription()).isEqualTo("Request B");
+        assertThat(other.get(0).description()).isEqualTo("Request B");
     }
 }
\ No newline at end of file
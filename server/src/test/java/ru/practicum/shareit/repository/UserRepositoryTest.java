@@ -3,10 +3,12 @@ package ru.practicum.shareit.repository;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.DataIntegrityViolationException;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 @DataJpaTest
 class UserRepositoryTest {
@@ -23,4 +25,23 @@ class UserRepositoryTest {
         assertThat(found.getName()).isEqualTo("Alice");
         assertThat(found.getEmail()).isEqualTo("alice@example.com");
     }
-}
\ No newline at end of file
+
+    @Test
+    void existsByEmailIgnoreCase_shouldIgnoreCaseAndExcludeGivenUser() {
+        User alice = userRepository.save(new User(null, "Alice", "alice@example.com"));
+
+        assertThat(userRepository.existsByEmailIgnoreCase("ALICE@Example.com")).isTrue();
+        assertThat(userRepository.existsByEmailIgnoreCase("bob@example.com")).isFalse();
+        assertThat(userRepository.existsByEmailIgnoreCaseAndIdNot("Alice@example.com", alice.getId())).isFalse();
+        assertThat(userRepository.existsByEmailIgnoreCaseAndIdNot("Alice@example.com", alice.getId() + 1)).isTrue();
+    }
+
+    @Test
+    void duplicateEmail_shouldViolateNamedConstraint() {
+        userRepository.saveAndFlush(new User(null, "Alice", "alice@example.com"));
+
+        assertThatThrownBy(() -> userRepository.saveAndFlush(new User(null, "Alice2", "alice@example.com")))
+                .isInstanceOf(DataIntegrityViolationException.class)
+                .hasMessageContaining(User.EMAIL_CONSTRAINT.toUpperCase());
+    }
+}
@@ -0,0 +1,109 @@
+package ru.practicum.shareit.service;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.StatusBooking;
+import ru.practicum.shareit.booking.repository.BookingArchiveRepository;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.booking.storage.BookingArchiver;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "shareit.booking-archive.batch-size=2")
+@Transactional
+class BookingArchiverTest {
+
+    @Autowired
+    private BookingArchiver archiver;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private BookingArchiveRepository archiveRepository;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private User owner;
+    private User booker;
+    private Item item;
+    private LocalDateTime now;
+
+    @BeforeEach
+    void setUp() {
+        owner = userRepository.save(new User(null, "Owner", "archive-owner@example.com"));
+        booker = userRepository.save(new User(null, "Booker", "archive-booker@example.com"));
+        item = itemRepository.save(new Item(null, "Палатка", "Трёхместная", true, owner, null));
+        now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+    }
+
+    @Test
+    void archiveEndedBefore_shouldMoveOnlyOldBookingsInBatches() {
+        List<Long> old = List.of(book(item, 9), book(item, 8), book(item, 7));
+        Long recent = book(item, 1);
+
+        int moved = archiver.archiveEndedBefore(now.minusMonths(6));
+        entityManager.clear();
+
+        assertThat(moved).isEqualTo(3);
+        assertThat(bookingRepository.findAllById(old)).isEmpty();
+        assertThat(archiveRepository.findAllById(old)).hasSize(3);
+        assertThat(bookingRepository.findById(recent)).isPresent();
+        assertThat(archiver.archiveEndedBefore(now.minusMonths(6))).isZero();
+    }
+
+    @Test
+    void archivedBookings_shouldStayVisibleThroughServices() {
+        Long archived = book(item, 8);
+        archiver.archiveEndedBefore(now.minusMonths(6));
+        entityManager.clear();
+
+        assertThat(bookingService.getBookingById(booker.getId(), archived).getStatus())
+                .isEqualTo(StatusBooking.APPROVED);
+
+        ItemDto details = itemService.getItemById(item.getId(), owner.getId(), null);
+        assertThat(details.getLastBooking().getId()).isEqualTo(archived);
+        assertThat(itemService.getAllItemsByOwner(owner.getId(), null).get(0).getLastBooking().getId())
+                .isEqualTo(archived);
+
+        CommentDto comment = new CommentDto();
+        comment.setText("Не протекает");
+        assertThat(itemService.addComment(booker.getId(), item.getId(), comment).getId()).isNotNull();
+    }
+
+    private Long book(Item target, int monthsAgo) {
+        LocalDateTime start = now.minusMonths(monthsAgo);
+        return bookingRepository.saveAndFlush(new Booking(null, start, start.plusDays(1), target, booker,
+                StatusBooking.APPROVED, null)).getId();
+    }
+}
@@ -0,0 +1,120 @@
+package ru.practicum.shareit.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.dto.BookingCreateDto;
+import ru.practicum.shareit.booking.event.BookingChangedEvent;
+import ru.practicum.shareit.booking.model.StatusBooking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.booking.stream.BookingEventStream;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class BookingEventStreamTest {
+    private static final Pattern STATUS = Pattern.compile("\"status\":\"(\\w+)\"");
+
+    @Autowired
+    private MockMvc mvc;
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private BookingEventStream bookingEventStream;
+    @Autowired
+    private UserRepository userRepo;
+    @Autowired
+    private ItemRepository itemRepo;
+    @Autowired
+    private BookingRepository bookingRepo;
+
+    private final List<User> users = new ArrayList<>();
+    private Item item;
+
+    @AfterEach
+    void cleanUp() {
+        // the stream only sees committed changes, so this test commits and has to remove its data itself
+        bookingRepo.deleteAll(bookingRepo.findAll().stream()
+                .filter(b -> b.getItem().getId().equals(item.getId()))
+                .toList());
+        itemRepo.delete(item);
+        userRepo.deleteAll(users);
+    }
+
+    @Test
+    void bookingChanges_shouldBePushedToBookerAndOwnerAfterCommit() throws Exception {
+        User owner = saveUser("stream-owner");
+        User booker = saveUser("stream-booker");
+        User bystander = saveUser("stream-bystander");
+        item = itemRepo.save(new Item(null, "вещь", "описание", true, owner, null));
+
+        MockHttpServletResponse ownerStream = subscribe(owner);
+        MockHttpServletResponse bookerStream = subscribe(booker);
+        MockHttpServletResponse bystanderStream = subscribe(bystander);
+
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        Long bookingId = bookingService.createBooking(booker.getId(),
+                new BookingCreateDto(item.getId(), start, start.plusDays(1))).getId();
+        bookingService.approveBooking(owner.getId(), bookingId, true);
+
+        await().atMost(Duration.ofSeconds(5)).untilAsserted(() -> {
+            assertThat(statuses(bookerStream)).containsExactly("WAITING", "APPROVED");
+            assertThat(statuses(ownerStream)).containsExactly("WAITING", "APPROVED");
+        });
+        assertThat(ownerStream.getContentAsString()).contains("event:booking", "\"bookingId\":" + bookingId);
+        assertThat(bystanderStream.getContentAsString()).doesNotContain("event:booking");
+        assertThat(bookingEventStream.subscriberCount(booker.getId())).isEqualTo(1);
+    }
+
+    @Test
+    void bookingChanges_shouldReachUserOnceWhenBookerIsOwner() throws Exception {
+        User owner = saveUser("stream-self");
+        item = itemRepo.save(new Item(null, "вещь", "описание", true, owner, null));
+        MockHttpServletResponse stream = subscribe(owner);
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+
+        for (StatusBooking status : List.of(StatusBooking.WAITING, StatusBooking.APPROVED, StatusBooking.CANCELED)) {
+            bookingEventStream.onBookingChanged(new BookingChangedEvent(1L, item.getId(), owner.getId(),
+                    owner.getId(), status, start, start.plusDays(1)));
+        }
+
+        await().atMost(Duration.ofSeconds(5)).untilAsserted(() ->
+                assertThat(statuses(stream)).containsExactly("WAITING", "APPROVED", "CANCELED"));
+    }
+
+    private static List<String> statuses(MockHttpServletResponse stream) throws Exception {
+        return STATUS.matcher(stream.getContentAsString()).results().map(match -> match.group(1)).toList();
+    }
+
+    private User saveUser(String name) {
+        User user = userRepo.save(new User(null, name, name + "@mail.com"));
+        users.add(user);
+        return user;
+    }
+
+    private MockHttpServletResponse subscribe(User user) throws Exception {
+        return mvc.perform(get("/bookings/events").header("X-Sharer-User-Id", user.getId()))
+                .andExpect(request().asyncStarted())
+                .andReturn()
+                .getResponse();
+    }
+}
@@ -1,24 +1,42 @@
 package ru.practicum.shareit.service;
 
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.StatusBooking;
+import ru.practicum.shareit.booking.repository.BookingArchiveRepository;
+import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.booking.service.BookingServiceImpl;
 import ru.practicum.shareit.exception.BadRequestException;
-import ru.practicum.shareit.exception.BookingAlreadyApprovedException;
+import ru.practicum.shareit.exception.BookingOverlapException;
+import ru.practicum.shareit.exception.BookingStatusConflictException;
 import ru.practicum.shareit.exception.OwnerNotFoundException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.pagination.CursorPage;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.*;
 
@@ -32,7 +50,12 @@ class BookingServiceImplTest {
     private UserRepository userRepo;
     @Autowired
     private ItemRepository itemRepo;
-
+    @Autowired
+    private BookingRepository bookingRepo;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
     private User owner;
     private User booker;
     private Item item;
@@ -87,7 +110,7 @@ class BookingServiceImplTest {
                 LocalDateTime.now().plusDays(2));
         bookingService.createBooking(booker.getId(), dto);
 
-        List<BookingResponseDto> list = bookingService.getBookingsByBooker(booker.getId(), "ALL");
+        List<BookingResponseDto> list = bookingService.getBookingsByBooker(booker.getId(), "ALL", 0, 10, null).items();
 
         assertThat(list).hasSize(1);
     }
@@ -99,11 +122,82 @@ class BookingServiceImplTest {
                 LocalDateTime.now().plusDays(2));
         bookingService.createBooking(booker.getId(), dto);
 
-        List<BookingResponseDto> list = bookingService.getBookingsByOwner(owner.getId(), "ALL");
+        List<BookingResponseDto> list = bookingService.getBookingsByOwner(owner.getId(), "ALL", 0, 10, null).items();
 
         assertThat(list).hasSize(1);
     }
 
+    @Test
+    void getBookingsByBookerAndOwner_shouldPageNewestFirst() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+        for (int i = 0; i < 5; i++) {
+            bookingService.createBooking(booker.getId(), new BookingCreateDto(item.getId(),
+                    start.plusDays(i * 2L), start.plusDays(i * 2L + 1)));
+        }
+
+        CursorPage<BookingResponseDto> firstPage = bookingService.getBookingsByBooker(booker.getId(), "ALL", 0, 2, null);
+        CursorPage<BookingResponseDto> lastPage = bookingService.getBookingsByOwner(owner.getId(), "FUTURE", 4, 2, null);
+
+        assertThat(firstPage.items()).extracting(BookingResponseDto::getStart)
+                .containsExactly(start.plusDays(8), start.plusDays(6));
+        assertThat(lastPage.items()).extracting(BookingResponseDto::getStart).containsExactly(start);
+        assertThat(lastPage.nextCursor()).isNull();
+    }
+
+    @Test
+    void getBookingsByOwner_withCursor_shouldSeekPastPreviousPage() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+        for (int i = 0; i < 3; i++) {
+            bookingService.createBooking(booker.getId(), new BookingCreateDto(item.getId(),
+                    start.plusDays(i * 2L), start.plusDays(i * 2L + 1)));
+        }
+
+        CursorPage<BookingResponseDto> first = bookingService.getBookingsByOwner(owner.getId(), "WAITING", 0, 2, null);
+        CursorPage<BookingResponseDto> second = bookingService.getBookingsByOwner(owner.getId(), "WAITING", 0, 2,
+                first.nextCursor());
+
+        assertThat(first.items()).extracting(BookingResponseDto::getStart)
+                .containsExactly(start.plusDays(4), start.plusDays(2));
+        assertThat(second.items()).extracting(BookingResponseDto::getStart).containsExactly(start);
+        assertThat(second.nextCursor()).isNull();
+        assertThatThrownBy(() -> bookingService.getBookingsByOwner(owner.getId(), "ALL", 0, 2, "garbage"))
+                .isInstanceOf(BadRequestException.class);
+    }
+
+    @Test
+    void createBooking_overlappingActiveBooking_shouldBeRejected() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        bookingService.createBooking(booker.getId(), new BookingCreateDto(item.getId(), start, start.plusDays(2)));
+
+        assertThatThrownBy(() -> bookingService.createBooking(booker.getId(),
+                new BookingCreateDto(item.getId(), start.plusDays(1), start.plusDays(3))))
+                .isInstanceOf(BookingOverlapException.class);
+    }
+
+    @Test
+    void createBooking_adjacentOrAfterRejected_shouldSucceed() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+        BookingResponseDto first = bookingService.createBooking(booker.getId(),
+                new BookingCreateDto(item.getId(), start, start.plusDays(2)));
+
+        bookingService.createBooking(booker.getId(),
+                new BookingCreateDto(item.getId(), start.plusDays(2), start.plusDays(3)));
+        bookingService.approveBooking(owner.getId(), first.getId(), false);
+        BookingResponseDto replacement = bookingService.createBooking(booker.getId(),
+                new BookingCreateDto(item.getId(), start, start.plusDays(1)));
+
+        assertThat(replacement.getStatus()).isEqualTo(StatusBooking.WAITING);
+    }
+
+    @Test
+    void createBooking_withEndNotAfterStart_shouldFail() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+
+        assertThatThrownBy(() -> bookingService.createBooking(booker.getId(),
+                new BookingCreateDto(item.getId(), start, start)))
+                .isInstanceOf(BadRequestException.class);
+    }
+
     @Test
     void createBooking_shouldFailWhenUserBooksOwnItem() {
         BookingCreateDto dto = new BookingCreateDto(item.getId(),
@@ -130,7 +224,7 @@ class BookingServiceImplTest {
     }
 
     @Test
-    void approveBooking_shouldFailIfAlreadyApproved() {
+    void approveBooking_decidedBeforeRead_shouldThrowConflict() {
         BookingCreateDto dto = new BookingCreateDto(item.getId(),
                 LocalDateTime.now().plusHours(1),
                 LocalDateTime.now().plusHours(2));
@@ -139,8 +233,11 @@ class BookingServiceImplTest {
 
         assertThatThrownBy(() ->
                 bookingService.approveBooking(owner.getId(), created.getId(), true)
-        ).isInstanceOf(BookingAlreadyApprovedException.class)
-                .hasMessageContaining("already processed");
+        ).isInstanceOf(BookingStatusConflictException.class)
+                .hasMessage("Booking already processed: APPROVED");
+        assertThatThrownBy(() ->
+                bookingService.approveBooking(owner.getId(), created.getId(), false)
+        ).isInstanceOf(BookingStatusConflictException.class);
     }
 
     @Test
@@ -162,7 +259,7 @@ class BookingServiceImplTest {
                 LocalDateTime.now().plusDays(2));
         bookingService.createBooking(booker.getId(), dto);
 
-        var list = bookingService.getBookingsByBooker(booker.getId(), "WAITING");
+        var list = bookingService.getBookingsByBooker(booker.getId(), "WAITING", 0, 10, null).items();
         assertThat(list).hasSize(1);
     }
 
@@ -173,7 +270,7 @@ class BookingServiceImplTest {
         var dto = new BookingCreateDto(item.getId(), start, end);
         bookingService.createBooking(booker.getId(), dto);
 
-        var result = bookingService.getBookingsByBooker(booker.getId(), "CURRENT");
+        var result = bookingService.getBookingsByBooker(booker.getId(), "CURRENT", 0, 10, null).items();
         assertThat(result).hasSize(1);
     }
 
@@ -185,7 +282,7 @@ class BookingServiceImplTest {
         var booking = bookingService.createBooking(booker.getId(), dto);
         bookingService.approveBooking(owner.getId(), booking.getId(), true);
 
-        var result = bookingService.getBookingsByBooker(booker.getId(), "PAST");
+        var result = bookingService.getBookingsByBooker(booker.getId(), "PAST", 0, 10, null).items();
         assertThat(result).hasSize(1);
     }
 
@@ -196,7 +293,7 @@ class BookingServiceImplTest {
         var dto = new BookingCreateDto(item.getId(), start, end);
         bookingService.createBooking(booker.getId(), dto);
 
-        var result = bookingService.getBookingsByBooker(booker.getId(), "FUTURE");
+        var result = bookingService.getBookingsByBooker(booker.getId(), "FUTURE", 0, 10, null).items();
         assertThat(result).hasSize(1);
     }
 
@@ -208,13 +305,13 @@ class BookingServiceImplTest {
         var booking = bookingService.createBooking(booker.getId(), dto);
         bookingService.approveBooking(owner.getId(), booking.getId(), false);
 
-        var result = bookingService.getBookingsByBooker(booker.getId(), "REJECTED");
+        var result = bookingService.getBookingsByBooker(booker.getId(), "REJECTED", 0, 10, null).items();
         assertThat(result).hasSize(1);
     }
 
     @Test
     void getBookingsByBooker_withStateUnknown_shouldThrow() {
-        assertThatThrownBy(() -> bookingService.getBookingsByBooker(booker.getId(), "UNSUPPORTED"))
+        assertThatThrownBy(() -> bookingService.getBookingsByBooker(booker.getId(), "UNSUPPORTED", 0, 10, null).items())
                 .isInstanceOf(BadRequestException.class)
                 .hasMessageContaining("Unknown state");
     }
@@ -226,7 +323,7 @@ class BookingServiceImplTest {
         var dto = new BookingCreateDto(item.getId(), start, end);
         bookingService.createBooking(booker.getId(), dto);
 
-        var result = bookingService.getBookingsByOwner(owner.getId(), "CURRENT");
+        var result = bookingService.getBookingsByOwner(owner.getId(), "CURRENT", 0, 10, null).items();
         assertThat(result).hasSize(1);
     }
 
@@ -238,7 +335,7 @@ class BookingServiceImplTest {
         var booking = bookingService.createBooking(booker.getId(), dto);
         bookingService.approveBooking(owner.getId(), booking.getId(), true);
 
-        var result = bookingService.getBookingsByOwner(owner.getId(), "PAST");
+        var result = bookingService.getBookingsByOwner(owner.getId(), "PAST", 0, 10, null).items();
         assertThat(result).hasSize(1);
     }
 
@@ -249,7 +346,7 @@ class BookingServiceImplTest {
         var dto = new BookingCreateDto(item.getId(), start, end);
         bookingService.createBooking(booker.getId(), dto);
 
-        var result = bookingService.getBookingsByOwner(owner.getId(), "FUTURE");
+        var result = bookingService.getBookingsByOwner(owner.getId(), "FUTURE", 0, 10, null).items();
         assertThat(result).hasSize(1);
     }
 
@@ -260,7 +357,7 @@ class BookingServiceImplTest {
                 LocalDateTime.now().plusHours(2));
         bookingService.createBooking(booker.getId(), dto);
 
-        var result = bookingService.getBookingsByOwner(owner.getId(), "WAITING");
+        var result = bookingService.getBookingsByOwner(owner.getId(), "WAITING", 0, 10, null).items();
         assertThat(result).hasSize(1);
     }
 
@@ -272,14 +369,172 @@ class BookingServiceImplTest {
         var booking = bookingService.createBooking(booker.getId(), dto);
         bookingService.approveBooking(owner.getId(), booking.getId(), false);
 
-        var result = bookingService.getBookingsByOwner(owner.getId(), "REJECTED");
+        var result = bookingService.getBookingsByOwner(owner.getId(), "REJECTED", 0, 10, null).items();
         assertThat(result).hasSize(1);
     }
 
     @Test
     void getBookingsByOwner_withStateUnknown_shouldThrow() {
-        assertThatThrownBy(() -> bookingService.getBookingsByOwner(owner.getId(), "UNSUPPORTED"))
+        assertThatThrownBy(() -> bookingService.getBookingsByOwner(owner.getId(), "UNSUPPORTED", 0, 10, null).items())
                 .isInstanceOf(BadRequestException.class)
                 .hasMessageContaining("Unknown state");
     }
-}
\ No newline at end of file
+
+    @Test
+    void getBookingLists_shouldUseConstantStatementCount() {
+        User secondOwner = userRepo.save(new User(null, "owner2", "o2@mail.com"));
+        Item secondItem = itemRepo.save(new Item(null, "вещь 2", "описание", true, secondOwner, null));
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+        List<Booking> bookings = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            Item target = i % 2 == 0 ? item : secondItem;
+            bookings.add(new Booking(null, start.plusHours(i), start.plusHours(i + 1), target, booker,
+                    StatusBooking.WAITING, null));
+        }
+        bookingRepo.saveAll(bookings);
+        entityManager.flush();
+        entityManager.clear();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        CursorPage<BookingResponseDto> byBooker = bookingService.getBookingsByBooker(booker.getId(), "ALL", 0, 500,
+                null);
+        long bookerStatements = statistics.getPrepareStatementCount();
+        statistics.clear();
+        CursorPage<BookingResponseDto> byOwner = bookingService.getBookingsByOwner(owner.getId(), "WAITING", 0, 500,
+                null);
+
+        assertThat(byBooker.items()).hasSize(500);
+        assertThat(byOwner.items()).hasSize(250);
+        // one statement checks the user, one loads the page with booker and item; a page that is not full
+        // also reads the archive
+        assertThat(bookerStatements).isEqualTo(2);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+    }
+
+    @Test
+    void approveBooking_shouldLoadBookingWithSingleStatement() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        Long bookingId = bookingService.createBooking(booker.getId(),
+                new BookingCreateDto(item.getId(), start, start.plusDays(1))).getId();
+        entityManager.flush();
+        entityManager.clear();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        bookingService.approveBooking(owner.getId(), bookingId, true);
+        entityManager.flush();
+
+        // the fetch-joined select and the status update; the item summary is refreshed after commit
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    void approveBookings_shouldApplyValidDecisionsAndReportTheRest() {
+        User stranger = userRepo.save(new User(null, "stranger", "s@mail.com"));
+        Item foreignItem = itemRepo.save(new Item(null, "чужая", "описание", true, stranger, null));
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        Long approve = createBooking(item, start).getId();
+        Long reject = createBooking(item, start.plusDays(2)).getId();
+        Long processed = createBooking(item, start.plusDays(4)).getId();
+        Long foreign = createBooking(foreignItem, start).getId();
+        bookingService.approveBooking(owner.getId(), processed, true);
+        entityManager.flush();
+        entityManager.clear();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        List<BookingDecisionResultDto> results = bookingService.approveBookings(owner.getId(), List.of(
+                new BookingDecisionDto(approve, true),
+                new BookingDecisionDto(reject, false),
+                new BookingDecisionDto(processed, false),
+                new BookingDecisionDto(foreign, true),
+                new BookingDecisionDto(-1L, true),
+                new BookingDecisionDto(approve, false)));
+        long statements = statistics.getPrepareStatementCount();
+
+        assertThat(results).extracting(BookingDecisionResultDto::getBookingId)
+                .containsExactly(approve, reject, processed, foreign, -1L, approve);
+        assertThat(results.get(0).getBooking().getStatus()).isEqualTo(StatusBooking.APPROVED);
+        assertThat(results.get(1).getBooking().getStatus()).isEqualTo(StatusBooking.REJECTED);
+        assertThat(results.get(2).getError()).isEqualTo("Booking already processed: APPROVED");
+        assertThat(results.get(3).getError()).isEqualTo("Only owner can approve/reject booking");
+        assertThat(results.get(4).getError()).isEqualTo("Booking not found: -1");
+        assertThat(results.get(5).getError()).startsWith("Duplicate decision");
+        // one fetch-joined load; the decisions go out as one conditional update, outside Hibernate, and the
+        // summaries of approved items are refreshed only after commit
+        assertThat(statements).isEqualTo(1);
+        assertThat(bookingService.getBookingById(owner.getId(), approve).getStatus()).isEqualTo(StatusBooking.APPROVED);
+        assertThat(bookingService.getBookingById(owner.getId(), reject).getStatus()).isEqualTo(StatusBooking.REJECTED);
+        assertThat(bookingService.getBookingById(stranger.getId(), foreign).getStatus())
+                .isEqualTo(StatusBooking.WAITING);
+    }
+
+    @Test
+    void approveBookings_onlyRejections_shouldUpdateWithEmptyApprovedSet() {
+        Long bookingId = createBooking(item, LocalDateTime.now().plusDays(1)).getId();
+
+        List<BookingDecisionResultDto> results = bookingService.approveBookings(owner.getId(),
+                List.of(new BookingDecisionDto(bookingId, false)));
+
+        assertThat(results.get(0).getBooking().getStatus()).isEqualTo(StatusBooking.REJECTED);
+        assertThat(bookingService.getBookingById(owner.getId(), bookingId).getStatus())
+                .isEqualTo(StatusBooking.REJECTED);
+    }
+
+    @Test
+    void approveBookings_racedToSameStatus_shouldReportOnlyOwnDecisions() {
+        BookingRepository racedRepository = Mockito.mock(BookingRepository.class);
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        Booking ours = new Booking(7L, start, start.plusDays(1), item, booker, StatusBooking.WAITING, 0L);
+        Booking raced = new Booking(8L, start.plusDays(2), start.plusDays(3), item, booker, StatusBooking.WAITING, 0L);
+        Mockito.when(racedRepository.findAllWithItemAndBookerByIdIn(Set.of(7L, 8L))).thenReturn(List.of(ours, raced));
+        Mockito.when(racedRepository.decideEachIfWaiting(
+                Map.of(7L, StatusBooking.APPROVED, 8L, StatusBooking.APPROVED))).thenReturn(Set.of(7L));
+        List<Object> events = new ArrayList<>();
+        BookingService service = new BookingServiceImpl(racedRepository,
+                Mockito.mock(BookingArchiveRepository.class), itemRepo, userRepo, events::add);
+
+        List<BookingDecisionResultDto> results = service.approveBookings(owner.getId(), List.of(
+                new BookingDecisionDto(7L, true),
+                new BookingDecisionDto(8L, true)));
+
+        assertThat(results.get(0).getBooking().getStatus()).isEqualTo(StatusBooking.APPROVED);
+        assertThat(results.get(1).getBooking()).isNull();
+        assertThat(results.get(1).getError()).isEqualTo("Booking already processed");
+        assertThat(events).hasSize(1);
+    }
+
+    @Test
+    void approveBooking_lostRace_shouldThrowConflict() {
+        BookingRepository racedRepository = Mockito.mock(BookingRepository.class);
+        Booking waiting = new Booking(7L, LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(2), item, booker,
+                StatusBooking.WAITING, 0L);
+        Mockito.when(racedRepository.findWithItemAndBookerById(7L)).thenReturn(Optional.of(waiting));
+        Mockito.when(racedRepository.decideIfWaiting(7L, StatusBooking.APPROVED)).thenReturn(0);
+        BookingService service = new BookingServiceImpl(racedRepository,
+                Mockito.mock(BookingArchiveRepository.class), itemRepo, userRepo, event -> {
+        });
+
+        assertThatThrownBy(() -> service.approveBooking(owner.getId(), 7L, true))
+                .isInstanceOf(BookingStatusConflictException.class)
+                .hasMessage("Booking already processed");
+    }
+
+    @Test
+    void createBooking_overBookingRejectedWithoutEvent_shouldSucceed() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+        Long rejectedId = createBooking(item, start).getId();
+        // decided without an event, as through another instance: only the database knows the slot is free
+        bookingRepo.decideIfWaiting(rejectedId, StatusBooking.REJECTED);
+
+        BookingResponseDto created = createBooking(item, start);
+
+        assertThat(created.getStatus()).isEqualTo(StatusBooking.WAITING);
+    }
+
+    private BookingResponseDto createBooking(Item target, LocalDateTime start) {
+        return bookingService.createBooking(booker.getId(), new BookingCreateDto(target.getId(), start,
+                start.plusDays(1)));
+    }
+}
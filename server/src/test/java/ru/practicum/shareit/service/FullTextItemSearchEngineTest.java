@@ -0,0 +1,27 @@
+package ru.practicum.shareit.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import ru.practicum.shareit.item.search.FullTextItemSearchEngine;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "shareit.search.engine=fulltext")
+class FullTextItemSearchEngineTest {
+
+    @Autowired
+    private ItemSearchEngine engine;
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Test
+    void fullTextEngine_shouldReplaceInMemoryIndex() {
+        assertThat(engine).isInstanceOf(FullTextItemSearchEngine.class);
+        assertThat(context.getBeanNamesForType(ItemSearchIndex.class)).isEmpty();
+    }
+}
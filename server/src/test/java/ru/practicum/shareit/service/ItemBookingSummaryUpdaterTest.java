@@ -0,0 +1,143 @@
+package ru.practicum.shareit.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.dto.BookingCreateDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.StatusBooking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemBookingSummary;
+import ru.practicum.shareit.item.repository.ItemBookingSummaryRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.item.summary.ItemBookingSummaryUpdater;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class ItemBookingSummaryUpdaterTest {
+
+    @Autowired
+    private ItemBookingSummaryUpdater updater;
+    @Autowired
+    private ItemBookingSummaryRepository summaryRepo;
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private BookingRepository bookingRepo;
+    @Autowired
+    private ItemRepository itemRepo;
+    @Autowired
+    private UserRepository userRepo;
+
+    private User owner;
+    private User booker;
+    private Item item;
+    private LocalDateTime now;
+
+    @BeforeEach
+    void setUp() {
+        owner = userRepo.save(new User(null, "Owner", "summary-owner@example.com"));
+        booker = userRepo.save(new User(null, "Booker", "summary-booker@example.com"));
+        item = itemRepo.save(new Item(null, "Лодка", "Резиновая", true, owner, null));
+        now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        // refreshes run in their own transactions after commit, so this test commits and removes its data itself
+        summaryRepo.deleteById(item.getId());
+        bookingRepo.deleteAll(bookingRepo.findAll().stream()
+                .filter(b -> b.getItem().getId().equals(item.getId()))
+                .toList());
+        itemRepo.delete(item);
+        userRepo.deleteAll(List.of(owner, booker));
+    }
+
+    @Test
+    void approval_shouldRefreshSummaryAfterCommit() {
+        LocalDateTime start = now.plusDays(1);
+        Long rejectedId = bookingService.createBooking(booker.getId(),
+                new BookingCreateDto(item.getId(), start, start.plusDays(1))).getId();
+        Long approvedId = bookingService.createBooking(booker.getId(),
+                new BookingCreateDto(item.getId(), start.plusDays(2), start.plusDays(3))).getId();
+        bookingService.approveBooking(owner.getId(), rejectedId, false);
+
+        bookingService.approveBooking(owner.getId(), approvedId, true);
+
+        ItemBookingSummary summary = summaryRepo.findById(item.getId()).orElseThrow();
+        assertThat(summary.getNextBookingId()).isEqualTo(approvedId);
+        assertThat(summary.getLastBookingId()).isNull();
+        assertThat(summary.getValidUntil()).isEqualTo(start.plusDays(2));
+
+        ItemDto ownerView = itemService.getItemById(item.getId(), owner.getId(), null);
+        assertThat(ownerView.getNextBooking().getId()).isEqualTo(approvedId);
+    }
+
+    @Test
+    void batchApproval_shouldRefreshSummaryAfterCommit() {
+        updater.refresh(item.getId());
+        LocalDateTime start = now.plusDays(1);
+        Long first = bookingService.createBooking(booker.getId(),
+                new BookingCreateDto(item.getId(), start, start.plusDays(1))).getId();
+        Long second = bookingService.createBooking(booker.getId(),
+                new BookingCreateDto(item.getId(), start.plusDays(2), start.plusDays(3))).getId();
+        assertThat(summaryRepo.findById(item.getId()).orElseThrow().getNextBookingId()).isNull();
+
+        bookingService.approveBookings(owner.getId(), List.of(
+                new BookingDecisionDto(second, true), new BookingDecisionDto(first, true)));
+
+        ItemBookingSummary summary = summaryRepo.findById(item.getId()).orElseThrow();
+        assertThat(summary.getNextBookingId()).isEqualTo(first);
+        assertThat(summary.getValidUntil()).isEqualTo(start);
+    }
+
+    @Test
+    void rollForward_shouldCreateMissingAndRecomputeExpiredSummaries() {
+        Booking past = book(now.minusDays(3), now.minusDays(2));
+        Booking running = book(now.minusHours(1), now.plusHours(1));
+        Booking upcoming = book(now.plusDays(1), now.plusDays(2));
+        bookingRepo.save(new Booking(null, now.minusHours(5), now.minusHours(4), item, booker,
+                StatusBooking.REJECTED, null));
+        bookingRepo.save(new Booking(null, now.plusHours(5), now.plusHours(6), item, booker,
+                StatusBooking.REJECTED, null));
+
+        updater.rollForward();
+
+        ItemBookingSummary summary = summaryRepo.findById(item.getId()).orElseThrow();
+        assertThat(summary.getLastBookingId()).isEqualTo(past.getId());
+        assertThat(summary.getNextBookingId()).isEqualTo(upcoming.getId());
+        assertThat(summary.getValidUntil()).isEqualTo(running.getEnd());
+
+        summary.setNextBookingId(null);
+        summary.setValidUntil(now.minusMinutes(1));
+        summaryRepo.save(summary);
+        assertThat(itemService.getItemById(item.getId(), owner.getId(), null).getNextBooking().getId())
+                .isEqualTo(upcoming.getId());
+
+        updater.rollForward();
+
+        assertThat(summaryRepo.findById(item.getId()).orElseThrow().getNextBookingId()).isEqualTo(upcoming.getId());
+        assertThat(itemService.getAllItemsByOwner(owner.getId(), null).get(0).getLastBooking().getId())
+                .isEqualTo(past.getId());
+    }
+
+    private Booking book(LocalDateTime start, LocalDateTime end) {
+        return bookingRepo.save(new Booking(null, start, end, item, booker, StatusBooking.APPROVED, null));
+    }
+}
@@ -0,0 +1,57 @@
+package ru.practicum.shareit.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.cache.ItemDetailsCache;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.event.ItemChangedEvent;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ItemDetailsCacheTest {
+
+    private ItemDetailsCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new ItemDetailsCache(2, Duration.ofMinutes(5), new SimpleMeterRegistry());
+    }
+
+    @Test
+    void put_shouldStoreViewWhenItemWasNotEvictedDuringLoad() {
+        long generation = cache.generation();
+        cache.put(1L, 10L, false, view("Палатка"), generation);
+
+        assertThat(cache.find(1L, 20L).getName()).isEqualTo("Палатка");
+    }
+
+    @Test
+    void put_shouldDropViewLoadedBeforeEviction() {
+        long generation = cache.generation();
+        cache.onItemChanged(new ItemChangedEvent(1L));
+        cache.put(1L, 10L, false, view("Палатка"), generation);
+
+        assertThat(cache.find(1L, 20L)).isNull();
+
+        cache.put(1L, 10L, false, view("Палатка"), cache.generation());
+        assertThat(cache.find(1L, 20L)).isNotNull();
+    }
+
+    @Test
+    void put_shouldStayConservativeAfterEvictionStampsAreDropped() {
+        long generation = cache.generation();
+        for (long itemId = 1; itemId <= 50; itemId++) {
+            cache.onItemChanged(new ItemChangedEvent(itemId));
+        }
+        cache.put(1L, 10L, false, view("Палатка"), generation);
+
+        assertThat(cache.find(1L, 20L)).isNull();
+    }
+
+    private static ItemDto view(String name) {
+        return ItemDto.builder().id(1L).name(name).build();
+    }
+}
@@ -0,0 +1,128 @@
+package ru.practicum.shareit.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.pagination.CursorCodec;
+import ru.practicum.shareit.pagination.CursorPage;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ItemSearchIndexTest {
+
+    private ItemRepository itemRepository;
+    private ItemSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        itemRepository = Mockito.mock(ItemRepository.class);
+        Mockito.when(itemRepository.findAll()).thenReturn(List.of(
+                new Item(1L, "Дрель аккумуляторная", "Для бетона", true, null, null),
+                new Item(2L, "Молоток", "Стальной, с резиновой ручкой", true, null, null),
+                new Item(3L, "Дрель ударная", "Сломана", false, null, null)
+        ));
+        index = new ItemSearchIndex(itemRepository, Mockito.mock(PlatformTransactionManager.class));
+        index.rebuild();
+    }
+
+    @Test
+    void search_shouldMatchSubstringIgnoringCase() {
+        assertThat(index.searchIds("дрел")).containsExactly(1L);
+        assertThat(index.searchIds("РЕЗИН")).containsExactly(2L);
+        assertThat(index.searchIds("Бетона")).containsExactly(1L);
+    }
+
+    @Test
+    void search_shouldHandleShortQueries() {
+        assertThat(index.searchIds("м")).containsExactly(1L, 2L);
+        assertThat(index.searchIds("ол")).containsExactly(2L);
+    }
+
+    @Test
+    void search_shouldRejectTrigramsWithoutContiguousMatch() {
+        index.index(new Item(4L, "абвxyz", "вгд", true, null, null));
+
+        assertThat(index.searchIds("абвгд")).isEmpty();
+    }
+
+    @Test
+    void index_shouldReflectUpdatesAndAvailability() {
+        index.index(new Item(3L, "Дрель ударная", "Починена", true, null, null));
+        assertThat(index.searchIds("дрель")).containsExactly(1L, 3L);
+
+        index.index(new Item(1L, "Шуруповёрт", "Для бетона", true, null, null));
+        assertThat(index.searchIds("дрель")).containsExactly(3L);
+
+        index.index(new Item(3L, "Дрель ударная", "Сломана снова", false, null, null));
+        assertThat(index.searchIds("дрель")).isEmpty();
+    }
+
+    @Test
+    void search_shouldPageFromCursorOrOffset() {
+        for (long id = 10; id < 20; id++) {
+            index.index(new Item(id, "Палатка " + id, "Туристическая", true, null, null));
+        }
+        Mockito.when(itemRepository.findAllById(ArgumentMatchers.anyIterable())).thenAnswer(invocation -> {
+            List<Item> found = new ArrayList<>();
+            invocation.<Iterable<Long>>getArgument(0)
+                    .forEach(id -> found.add(new Item(id, "Палатка " + id, "Туристическая", true, null, null)));
+            return found;
+        });
+
+        CursorPage<Item> afterCursor = index.search("ПАЛАТКА", CursorCodec.encode(12L), 5, 3);
+        CursorPage<Item> lastByOffset = index.search("палатка", null, 8, 3);
+        CursorPage<Item> beyondEnd = index.search("палатка", null, 10, 3);
+
+        assertThat(afterCursor.items()).extracting(Item::getId).containsExactly(13L, 14L, 15L);
+        assertThat(afterCursor.nextCursor()).isEqualTo(CursorCodec.encode(15L));
+        assertThat(lastByOffset.items()).extracting(Item::getId).containsExactly(18L, 19L);
+        assertThat(lastByOffset.nextCursor()).isNull();
+        assertThat(beyondEnd.items()).isEmpty();
+        Mockito.verify(itemRepository).findAllById(List.of(13L, 14L, 15L));
+    }
+
+    @Test
+    void index_rollbackOverlappingCommit_shouldKeepCommittedState() {
+        List<TransactionSynchronization> rolledBack =
+                inTransaction(new Item(2L, "Кувалда", "Стальная", true, null, null));
+        List<TransactionSynchronization> committed =
+                inTransaction(new Item(2L, "Киянка", "Резиновая", true, null, null));
+        assertThat(index.searchIds("кувалда")).isEmpty();
+        assertThat(index.searchIds("молоток")).containsExactly(2L);
+
+        Mockito.when(itemRepository.findAllById(ArgumentMatchers.anyIterable()))
+                .thenReturn(List.of(new Item(2L, "Киянка", "Резиновая", true, null, null)));
+        TransactionSynchronizationUtils.invokeAfterCommit(committed);
+        TransactionSynchronizationUtils.invokeAfterCompletion(committed, TransactionSynchronization.STATUS_COMMITTED);
+        TransactionSynchronizationUtils.invokeAfterCompletion(rolledBack,
+                TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        assertThat(index.searchIds("киянка")).containsExactly(2L);
+        assertThat(index.searchIds("молоток")).isEmpty();
+        assertThat(index.searchIds("кувалда")).isEmpty();
+        Mockito.verify(itemRepository).findAllById(ArgumentMatchers.anyIterable());
+    }
+
+    private List<TransactionSynchronization> inTransaction(Item... changed) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            for (Item item : changed) {
+                index.index(item);
+            }
+            return TransactionSynchronizationManager.getSynchronizations();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+}
@@ -1,26 +1,43 @@
 package ru.practicum.shareit.service;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.transaction.TestTransaction;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingCreateDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.StatusBooking;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.exception.BadRequestException;
 import ru.practicum.shareit.exception.ItemNotFoundException;
 import ru.practicum.shareit.exception.ItemRequestNotFoundException;
 import ru.practicum.shareit.exception.OwnerNotFoundException;
+import ru.practicum.shareit.exception.UserNotFoundException;
+import ru.practicum.shareit.item.dto.AvailabilityIntervalDto;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
+import ru.practicum.shareit.item.dto.ItemBatchResultDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.pagination.CursorPage;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 import ru.practicum.shareit.util.TestUtil;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.*;
@@ -44,6 +61,18 @@ class ItemServiceImplTest {
     @Autowired
     private CommentRepository commentRepository;
 
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private ItemSearchIndex itemSearchIndex;
+
     private User owner;
     private User requester;
 
@@ -53,6 +82,22 @@ class ItemServiceImplTest {
         requester = userRepository.save(new User(null, "Requester", "requester@example.com"));
     }
 
+    @AfterEach
+    void cleanUpCommitted() {
+        if (TestTransaction.isActive()) {
+            return;
+        }
+        // search tests commit so that the memory engine indexes their items, and remove their data themselves
+        itemRepository.deleteAll(itemRepository.findAll().stream()
+                .filter(i -> i.getOwner().getId().equals(owner.getId()))
+                .toList());
+        requestRepository.deleteAll(requestRepository.findAll().stream()
+                .filter(r -> r.getRequestor().getId().equals(requester.getId()))
+                .toList());
+        userRepository.deleteAll(List.of(owner, requester));
+        itemSearchIndex.rebuild();
+    }
+
     @Test
     void createItem_withoutRequest_shouldSucceed() {
         ItemDto dto = ItemDto.builder()
@@ -112,7 +157,7 @@ class ItemServiceImplTest {
                 owner.getId()
         );
 
-        ItemDto found = itemService.getItemById(created.getId(), owner.getId());
+        ItemDto found = itemService.getItemById(created.getId(), owner.getId(), null);
 
         assertThat(found.getName()).isEqualTo("Вещь");
     }
@@ -124,7 +169,7 @@ class ItemServiceImplTest {
                 owner.getId()
         );
 
-        ItemDto found = itemService.getItemById(created.getId(), requester.getId());
+        ItemDto found = itemService.getItemById(created.getId(), requester.getId(), null);
 
         assertThat(found.getName()).isEqualTo("Вещь");
     }
@@ -134,7 +179,7 @@ class ItemServiceImplTest {
         itemService.createItem(ItemDto.builder().name("1").description("a").available(true).build(), owner.getId());
         itemService.createItem(ItemDto.builder().name("2").description("b").available(true).build(), owner.getId());
 
-        List<ItemDto> items = itemService.getAllItemsByOwner(owner.getId());
+        List<ItemDto> items = itemService.getAllItemsByOwner(owner.getId(), null);
 
         assertThat(items).hasSize(2);
     }
@@ -146,8 +191,9 @@ class ItemServiceImplTest {
                 .description("Ударная дрель")
                 .available(true)
                 .build(), owner.getId());
+        commit();
 
-        List<ItemDto> found = itemService.searchItems("ударн");
+        List<ItemDto> found = itemService.searchItems("ударн", 0, 10, null).items();
 
         assertThat(found).hasSize(1);
         assertThat(found.get(0).getName()).isEqualTo("Дрель");
@@ -155,7 +201,7 @@ class ItemServiceImplTest {
 
     @Test
     void searchItems_emptyText_shouldReturnEmpty() {
-        List<ItemDto> found = itemService.searchItems("");
+        List<ItemDto> found = itemService.searchItems("", 0, 10, null).items();
 
         assertThat(found).isEmpty();
     }
@@ -189,7 +235,7 @@ class ItemServiceImplTest {
 
     @Test
     void getItemById_shouldThrowIfNotFound() {
-        assertThatThrownBy(() -> itemService.getItemById(9999L, owner.getId()))
+        assertThatThrownBy(() -> itemService.getItemById(9999L, owner.getId(), null))
                 .isInstanceOf(ItemNotFoundException.class);
     }
 
@@ -216,6 +262,55 @@ class ItemServiceImplTest {
                 .isInstanceOf(BadRequestException.class);
     }
 
+    @Test
+    void addComment_withRejectedPastBooking_shouldFail() {
+        ItemDto item = itemService.createItem(ItemDto.builder()
+                .name("Самокат")
+                .description("Городской")
+                .available(true)
+                .build(), owner.getId());
+        Booking rejected = TestUtil.createPastBooking(item.getId(), requester.getId());
+        rejected.setStatus(StatusBooking.REJECTED);
+        bookingRepository.save(rejected);
+
+        CommentDto comment = new CommentDto();
+        comment.setText("Не катался");
+
+        assertThatThrownBy(() -> itemService.addComment(requester.getId(), item.getId(), comment))
+                .isInstanceOf(BadRequestException.class);
+    }
+
+    @Test
+    void createItems_shouldInsertValidEntriesAndReportRejected() {
+        ItemRequest request = requestRepository.save(new ItemRequest(null, "Нужен фонарь", requester,
+                LocalDateTime.now()));
+        List<ItemDto> batch = List.of(
+                ItemDto.builder().name("Фонарь").description("Налобный").available(true)
+                        .requestId(request.getId()).build(),
+                ItemDto.builder().name(" ").description("Без названия").available(true).build(),
+                ItemDto.builder().name("Компас").description("Жидкостный").available(true).requestId(9999L).build(),
+                ItemDto.builder().name("Карабин").description("Стальной").available(false).build());
+
+        List<ItemBatchResultDto> results = itemService.createItems(batch, owner.getId());
+
+        assertThat(results).extracting(ItemBatchResultDto::getIndex).containsExactly(0, 1, 2, 3);
+        assertThat(results.get(0).getItem().getRequestId()).isEqualTo(request.getId());
+        assertThat(results.get(1).getError()).isEqualTo("Название не может быть пустым");
+        assertThat(results.get(2).getError()).contains("9999");
+        assertThat(results.get(3).getItem().getAvailable()).isFalse();
+        assertThat(itemService.getAllItemsByOwner(owner.getId(), null))
+                .extracting(ItemDto::getName).containsExactly("Фонарь", "Карабин");
+        commit();
+        assertThat(itemService.searchItems("фонарь", 0, 10, null).items())
+                .extracting(ItemDto::getId).containsExactly(results.get(0).getItem().getId());
+    }
+
+    @Test
+    void createItems_withUnknownOwner_shouldThrow() {
+        assertThatThrownBy(() -> itemService.createItems(List.of(ItemDto.builder().build()), 9999L))
+                .isInstanceOf(UserNotFoundException.class);
+    }
+
     @Test
     void createItem_withNonExistentRequest_shouldThrow() {
         ItemDto dto = ItemDto.builder()
@@ -232,7 +327,7 @@ class ItemServiceImplTest {
 
     @Test
     void searchItems_nullText_shouldReturnEmptyList() {
-        List<ItemDto> result = itemService.searchItems(null);
+        List<ItemDto> result = itemService.searchItems(null, 0, 10, null).items();
         assertThat(result).isEmpty();
     }
 
@@ -263,7 +358,7 @@ class ItemServiceImplTest {
         // комментарий
         commentRepository.save(TestUtil.createComment(itemId, requester));
 
-        List<ItemDto> items = itemService.getAllItemsByOwner(owner.getId());
+        List<ItemDto> items = itemService.getAllItemsByOwner(owner.getId(), null);
 
         assertThat(items).hasSize(1);
         assertThat(items.get(0).getLastBooking()).isNotNull();
@@ -300,7 +395,7 @@ class ItemServiceImplTest {
                 .available(true)
                 .build(), owner.getId());
 
-        ItemDto result = itemService.getItemById(item.getId(), owner.getId());
+        ItemDto result = itemService.getItemById(item.getId(), owner.getId(), null);
 
         assertThat(result.getLastBooking()).isNull();
         assertThat(result.getNextBooking()).isNull();
@@ -314,7 +409,7 @@ class ItemServiceImplTest {
                 .available(true)
                 .build(), owner.getId());
 
-        List<ItemDto> result = itemService.searchItems("дрель");
+        List<ItemDto> result = itemService.searchItems("дрель", 0, 10, null).items();
 
         assertThat(result).isEmpty();
     }
@@ -350,4 +445,225 @@ class ItemServiceImplTest {
         assertThat(updated.getName()).isEqualTo("Стул");
         assertThat(updated.getDescription()).isEqualTo("desc");
     }
-}
\ No newline at end of file
+
+    @Test
+    void searchItems_shouldPageByOffsetAndCursor() {
+        for (int i = 1; i <= 5; i++) {
+            itemService.createItem(ItemDto.builder()
+                    .name("Лопата " + i)
+                    .description("Штыковая")
+                    .available(true)
+                    .build(), owner.getId());
+        }
+        commit();
+
+        CursorPage<ItemDto> first = itemService.searchItems("лопата", 0, 2, null);
+        CursorPage<ItemDto> second = itemService.searchItems("лопата", 0, 2, first.nextCursor());
+        CursorPage<ItemDto> last = itemService.searchItems("лопата", 0, 2, second.nextCursor());
+        CursorPage<ItemDto> byOffset = itemService.searchItems("лопата", 2, 2, null);
+
+        assertThat(first.items()).extracting(ItemDto::getName).containsExactly("Лопата 1", "Лопата 2");
+        assertThat(second.items()).extracting(ItemDto::getName).containsExactly("Лопата 3", "Лопата 4");
+        assertThat(last.items()).extracting(ItemDto::getName).containsExactly("Лопата 5");
+        assertThat(last.nextCursor()).isNull();
+        assertThat(byOffset.items()).isEqualTo(second.items());
+    }
+
+    @Test
+    void searchItems_withMalformedCursor_shouldThrow() {
+        assertThatThrownBy(() -> itemService.searchItems("лопата", 0, 2, "not a cursor"))
+                .isInstanceOf(BadRequestException.class);
+    }
+
+    @Test
+    void getItemById_repeatedReads_shouldHitCache() {
+        ItemDto item = itemService.createItem(ItemDto.builder()
+                .name("Палатка")
+                .description("Двухместная")
+                .available(true)
+                .build(), owner.getId());
+        double hitsBefore = cacheGets("hit");
+
+        itemService.getItemById(item.getId(), requester.getId(), null);
+        ItemDto cached = itemService.getItemById(item.getId(), requester.getId(), null);
+
+        assertThat(cached.getName()).isEqualTo("Палатка");
+        assertThat(cacheGets("hit")).isEqualTo(hitsBefore + 1);
+    }
+
+    @Test
+    void getItemById_shouldReflectUpdatesBookingsAndComments() {
+        ItemDto item = itemService.createItem(ItemDto.builder()
+                .name("Байдарка")
+                .description("Надувная")
+                .available(true)
+                .build(), owner.getId());
+        assertThat(itemService.getItemById(item.getId(), owner.getId(), null).getNextBooking()).isNull();
+        assertThat(itemService.getItemById(item.getId(), requester.getId(), null).getComments()).isEmpty();
+
+        itemService.updateItem(ItemDto.builder().name("Байдарка двухместная").build(), item.getId(), owner.getId());
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        Long rejectedId = bookingService.createBooking(requester.getId(),
+                new BookingCreateDto(item.getId(), start, start.plusDays(1))).getId();
+        bookingService.approveBooking(owner.getId(), rejectedId, false);
+        assertThat(itemService.getItemById(item.getId(), owner.getId(), null).getNextBooking()).isNull();
+        Long approvedId = bookingService.createBooking(requester.getId(),
+                new BookingCreateDto(item.getId(), start.plusDays(2), start.plusDays(3))).getId();
+        bookingService.approveBooking(owner.getId(), approvedId, true);
+        bookingRepository.save(TestUtil.createPastBooking(item.getId(), requester.getId()));
+        CommentDto comment = new CommentDto();
+        comment.setText("Не течёт");
+        itemService.addComment(requester.getId(), item.getId(), comment);
+
+        ItemDto ownerView = itemService.getItemById(item.getId(), owner.getId(), null);
+        ItemDto publicView = itemService.getItemById(item.getId(), requester.getId(), null);
+
+        assertThat(ownerView.getName()).isEqualTo("Байдарка двухместная");
+        assertThat(ownerView.getNextBooking().getId()).isEqualTo(approvedId);
+        assertThat(publicView.getNextBooking()).isNull();
+        assertThat(publicView.getComments()).extracting(CommentDto::getText).containsExactly("Не течёт");
+    }
+
+    @Test
+    void getItemsWithCommentsLimit_shouldReturnLatestCommentsAndTotal() {
+        ItemDto item = itemService.createItem(ItemDto.builder()
+                .name("Гамак")
+                .description("Походный")
+                .available(true)
+                .build(), owner.getId());
+        saveComments(item.getId(), 3);
+
+        ItemDto single = itemService.getItemById(item.getId(), requester.getId(), 2);
+        List<ItemDto> owned = itemService.getAllItemsByOwner(owner.getId(), 1);
+
+        assertThat(single.getComments()).extracting(CommentDto::getText).containsExactly("Отзыв 3", "Отзыв 2");
+        assertThat(single.getCommentsCount()).isEqualTo(3L);
+        assertThat(owned.getFirst().getComments()).extracting(CommentDto::getText).containsExactly("Отзыв 3");
+        assertThat(owned.getFirst().getCommentsCount()).isEqualTo(3L);
+    }
+
+    @Test
+    void getComments_shouldPageWithCursor() {
+        ItemDto item = itemService.createItem(ItemDto.builder()
+                .name("Котелок")
+                .description("Титановый")
+                .available(true)
+                .build(), owner.getId());
+        saveComments(item.getId(), 3);
+
+        CursorPage<CommentDto> first = itemService.getComments(item.getId(), 2, null);
+        CursorPage<CommentDto> second = itemService.getComments(item.getId(), 2, first.nextCursor());
+
+        assertThat(first.items()).extracting(CommentDto::getText).containsExactly("Отзыв 3", "Отзыв 2");
+        assertThat(second.items()).extracting(CommentDto::getText).containsExactly("Отзыв 1");
+        assertThat(second.nextCursor()).isNull();
+        assertThatThrownBy(() -> itemService.getComments(item.getId(), 2, "not a cursor"))
+                .isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> itemService.getComments(9999L, 2, null))
+                .isInstanceOf(ItemNotFoundException.class);
+    }
+
+    private void saveComments(Long itemId, int count) {
+        LocalDateTime created = LocalDateTime.now().minusDays(count).truncatedTo(ChronoUnit.MICROS);
+        for (int i = 1; i <= count; i++) {
+            Comment comment = TestUtil.createComment(itemId, requester);
+            comment.setText("Отзыв " + i);
+            comment.setCreated(created.plusHours(i));
+            commentRepository.save(comment);
+        }
+    }
+
+    private double cacheGets(String result) {
+        return meterRegistry.get("cache.gets")
+                .tag("cache", "itemDetails")
+                .tag("result", result)
+                .functionCounter()
+                .count();
+    }
+
+    @Test
+    void getAvailability_shouldMergeBusyIntervalsAndReturnGaps() {
+        Long itemId = itemService.createItem(ItemDto.builder().name("Палатка").description("Трёхместная")
+                .available(true).build(), owner.getId()).getId();
+        LocalDateTime base = LocalDateTime.now().plusHours(1).truncatedTo(ChronoUnit.SECONDS);
+        bookingService.createBooking(requester.getId(), new BookingCreateDto(itemId, base.plusDays(1), base.plusDays(2)));
+        bookingService.createBooking(requester.getId(), new BookingCreateDto(itemId, base.plusDays(2), base.plusDays(3)));
+        Long rejected = bookingService.createBooking(requester.getId(),
+                new BookingCreateDto(itemId, base.plusDays(3), base.plusDays(4))).getId();
+        bookingService.approveBooking(owner.getId(), rejected, false);
+        bookingService.createBooking(requester.getId(), new BookingCreateDto(itemId, base.plusDays(5), base.plusDays(8)));
+
+        ItemAvailabilityDto availability = itemService.getAvailability(itemId, base, base.plusDays(7));
+
+        assertThat(availability.getBusy()).containsExactly(
+                new AvailabilityIntervalDto(base.plusDays(1), base.plusDays(3)),
+                new AvailabilityIntervalDto(base.plusDays(5), base.plusDays(7)));
+        assertThat(availability.getFree()).containsExactly(
+                new AvailabilityIntervalDto(base, base.plusDays(1)),
+                new AvailabilityIntervalDto(base.plusDays(3), base.plusDays(5)));
+    }
+
+    @Test
+    void availability_shouldSeeBookingsSavedWithoutEvent() {
+        Long itemId = itemService.createItem(ItemDto.builder().name("Гамак").description("Походный")
+                .available(true).build(), owner.getId()).getId();
+        LocalDateTime base = LocalDateTime.now().plusHours(1).truncatedTo(ChronoUnit.SECONDS);
+        // saved without an event, as through another instance
+        bookingRepository.save(TestUtil.createBooking(itemId, requester.getId(), base, base.plusDays(2)));
+
+        ItemAvailabilityDto availability = itemService.getAvailability(itemId, base, base.plusDays(3));
+        AvailabilityIntervalDto slot = itemService.getNextFreeSlot(itemId, base, Duration.ofHours(3));
+
+        assertThat(availability.getBusy())
+                .containsExactly(new AvailabilityIntervalDto(base, base.plusDays(2)));
+        assertThat(slot).isEqualTo(new AvailabilityIntervalDto(base.plusDays(2), base.plusDays(2).plusHours(3)));
+    }
+
+    @Test
+    void getAvailability_windowInPast_shouldIncludeFinishedBookings() {
+        Long itemId = itemService.createItem(ItemDto.builder().name("Лыжи").description("Беговые")
+                .available(true).build(), owner.getId()).getId();
+        LocalDateTime base = LocalDateTime.now().minusDays(10).truncatedTo(ChronoUnit.SECONDS);
+        bookingRepository.save(TestUtil.createBooking(itemId, requester.getId(), base.plusDays(2), base.plusDays(4)));
+
+        ItemAvailabilityDto availability = itemService.getAvailability(itemId, base, base.plusDays(5));
+
+        assertThat(availability.getBusy())
+                .containsExactly(new AvailabilityIntervalDto(base.plusDays(2), base.plusDays(4)));
+        assertThat(availability.getFree()).hasSize(2);
+        assertThatThrownBy(() -> itemService.getAvailability(itemId, base, base))
+                .isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> itemService.getAvailability(itemId, base, base.plusYears(2)))
+                .isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> itemService.getAvailability(-1L, base, base.plusDays(1)))
+                .isInstanceOf(ItemNotFoundException.class);
+    }
+
+    @Test
+    void getNextFreeSlot_shouldSkipBookedIntervals() {
+        Long itemId = itemService.createItem(ItemDto.builder().name("Байдарка").description("Двухместная")
+                .available(true).build(), owner.getId()).getId();
+        LocalDateTime base = LocalDateTime.now().plusHours(1).truncatedTo(ChronoUnit.SECONDS);
+        bookingService.createBooking(requester.getId(), new BookingCreateDto(itemId, base, base.plusDays(1)));
+        bookingService.createBooking(requester.getId(),
+                new BookingCreateDto(itemId, base.plusDays(1).plusHours(2), base.plusDays(2)));
+
+        AvailabilityIntervalDto slot = itemService.getNextFreeSlot(itemId, base, Duration.ofHours(3));
+
+        assertThat(slot).isEqualTo(new AvailabilityIntervalDto(base.plusDays(2), base.plusDays(2).plusHours(3)));
+        assertThat(itemService.getNextFreeSlot(itemId, base, Duration.ofHours(2)).getStart())
+                .isEqualTo(base.plusDays(1));
+        assertThatThrownBy(() -> itemService.getNextFreeSlot(itemId, base, Duration.ZERO))
+                .isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> itemService.getNextFreeSlot(-1L, base, Duration.ofHours(1)))
+                .isInstanceOf(ItemNotFoundException.class);
+    }
+
+    /**
+     * The memory search engine indexes items once their transaction commits.
+     */
+    private void commit() {
+        TestTransaction.flagForCommit();
+        TestTransaction.end();
+    }
+}
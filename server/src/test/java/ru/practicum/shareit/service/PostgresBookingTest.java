@@ -0,0 +1,139 @@
+package ru.practicum.shareit.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.StatusBooking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.storage.BookingPartitionManager;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Runs the partitioned bookings table against a real PostgreSQL: the overlap guard must hold across
+ * partitions, a new partition must take over the rows that were waiting in bookings_default, and batch
+ * decisions must report exactly the rows their single update changed.
+ * Skipped when Docker is not available.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.driver-class-name=org.postgresql.Driver",
+        "spring.sql.init.mode=always",
+        "spring.jpa.hibernate.ddl-auto=none",
+        "shareit.booking-partitions.enabled=true",
+        "shareit.booking-partitions.months-ahead=3"})
+@Testcontainers(disabledWithoutDocker = true)
+@Transactional
+class PostgresBookingTest {
+
+    @Container
+    @ServiceConnection
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private User booker;
+    private Item item;
+
+    @BeforeEach
+    void setUp() {
+        User owner = userRepository.save(new User(null, "Иван", "ivan@example.com"));
+        booker = userRepository.save(new User(null, "Пётр", "petr@example.com"));
+        item = itemRepository.save(new Item(null, "Дрель", "Ударная", true, owner, null));
+    }
+
+    @Test
+    void overlapGuard_shouldRejectOverlapAcrossMonthPartitions() {
+        LocalDateTime monthEnd = YearMonth.now().plusMonths(2).atDay(1).atStartOfDay();
+        save(monthEnd.minusDays(1), monthEnd.plusDays(1), StatusBooking.APPROVED);
+
+        assertThatThrownBy(() -> save(monthEnd.plusHours(1), monthEnd.plusHours(2), StatusBooking.WAITING))
+                .isInstanceOf(DataIntegrityViolationException.class)
+                .hasMessageContaining("ex_bookings_no_overlap");
+    }
+
+    @Test
+    void overlapGuard_shouldFreeTheSlotOfARejectedBooking() {
+        LocalDateTime start = YearMonth.now().plusMonths(1).atDay(10).atStartOfDay();
+        Booking rejected = save(start, start.plusDays(2), StatusBooking.WAITING);
+        rejected.setStatus(StatusBooking.REJECTED);
+        bookingRepository.saveAndFlush(rejected);
+
+        Booking approved = save(start.plusDays(1), start.plusDays(3), StatusBooking.APPROVED);
+
+        assertThat(jdbcTemplate.queryForList("SELECT booking_id FROM booking_slots WHERE item_id = ?",
+                Long.class, item.getId())).containsExactly(approved.getId());
+    }
+
+    @Test
+    void maintain_shouldMoveDefaultPartitionRowsIntoTheNewMonth() {
+        YearMonth month = YearMonth.now().plusMonths(5);
+        LocalDateTime start = month.atDay(3).atStartOfDay();
+        Booking booking = save(start, start.plusDays(1), StatusBooking.APPROVED);
+        assertThat(partitionOf(booking)).isEqualTo("bookings_default");
+
+        new BookingPartitionManager(jdbcTemplate, transactionManager, 6, 12).maintain();
+
+        assertThat(partitionOf(booking)).isEqualTo("bookings_p" + month.format(DateTimeFormatter.ofPattern("uuuuMM")));
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM booking_slots WHERE booking_id = ?",
+                Integer.class, booking.getId())).isEqualTo(1);
+        assertThatThrownBy(() -> save(start.plusHours(1), start.plusHours(2), StatusBooking.WAITING))
+                .isInstanceOf(DataIntegrityViolationException.class);
+    }
+
+    @Test
+    void decideEachIfWaiting_shouldDecideAcrossPartitionsInOneStatement() {
+        LocalDateTime start = YearMonth.now().plusMonths(1).atDay(10).atStartOfDay();
+        Booking waiting = save(start, start.plusDays(1), StatusBooking.WAITING);
+        Booking nextMonth = save(start.plusMonths(1), start.plusMonths(1).plusDays(1), StatusBooking.WAITING);
+        Booking approved = save(start.plusDays(2), start.plusDays(3), StatusBooking.APPROVED);
+
+        Set<Long> decided = bookingRepository.decideEachIfWaiting(Map.of(
+                waiting.getId(), StatusBooking.APPROVED,
+                nextMonth.getId(), StatusBooking.REJECTED,
+                approved.getId(), StatusBooking.REJECTED));
+
+        assertThat(decided).containsExactlyInAnyOrder(waiting.getId(), nextMonth.getId());
+        assertThat(jdbcTemplate.queryForList("SELECT status FROM bookings WHERE id IN (?, ?, ?) ORDER BY start_time",
+                String.class, waiting.getId(), approved.getId(), nextMonth.getId()))
+                .containsExactly("APPROVED", "APPROVED", "REJECTED");
+    }
+
+    private Booking save(LocalDateTime start, LocalDateTime end, StatusBooking status) {
+        return bookingRepository.saveAndFlush(new Booking(null, start, end, item, booker, status, null));
+    }
+
+    private String partitionOf(Booking booking) {
+        return jdbcTemplate.queryForObject("SELECT tableoid::regclass::text FROM bookings WHERE id = ?",
+                String.class, booking.getId());
+    }
+}
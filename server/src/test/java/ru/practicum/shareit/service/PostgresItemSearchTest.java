@@ -0,0 +1,117 @@
+package ru.practicum.shareit.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.FullTextItemSearchEngine;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.item.search.TrigramItemSearchEngine;
+import ru.practicum.shareit.pagination.CursorPage;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs schema.sql and the native search queries against a real PostgreSQL, which the H2-based tests cannot.
+ * Skipped when Docker is not available.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.driver-class-name=org.postgresql.Driver",
+        "spring.sql.init.mode=always",
+        "spring.jpa.hibernate.ddl-auto=none",
+        "shareit.search.engine=fulltext"})
+@Testcontainers(disabledWithoutDocker = true)
+@Transactional
+class PostgresItemSearchTest {
+
+    @Container
+    @ServiceConnection
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private ItemSearchEngine engine;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User owner;
+
+    @BeforeEach
+    void setUp() {
+        owner = userRepository.save(new User(null, "Иван", "ivan@example.com"));
+    }
+
+    @Test
+    void fullText_shouldRankNameMatchesAboveDescriptionMatches() {
+        Item inDescription = save("Шуруповёрт", "Сверлит не хуже, чем дрель", true);
+        Item inName = save("Дрель аккумуляторная", "Два аккумулятора", true);
+        save("Дрель ударная", "Сломана", false);
+
+        List<Item> found = engine.search("дрели", null, 0, 10).items();
+
+        assertThat(engine).isInstanceOf(FullTextItemSearchEngine.class);
+        assertThat(found).extracting(Item::getId).containsExactly(inName.getId(), inDescription.getId());
+    }
+
+    @Test
+    void fullText_shouldContinueFromCursorAndHonourOffset() {
+        Item first = save("Палатка", "Палатка трёхместная", true);
+        Item second = save("Палатка", "Двухместная", true);
+        Item third = save("Тент", "Вместо палатки", true);
+
+        CursorPage<Item> page = engine.search("палатка", null, 0, 2);
+        CursorPage<Item> next = engine.search("палатка", page.nextCursor(), 0, 2);
+        List<Item> shifted = engine.search("палатка", null, 1, 2).items();
+
+        assertThat(page.items()).extracting(Item::getId).containsExactly(first.getId(), second.getId());
+        assertThat(next.items()).extracting(Item::getId).containsExactly(third.getId());
+        assertThat(next.nextCursor()).isNull();
+        assertThat(shifted).extracting(Item::getId).containsExactly(second.getId(), third.getId());
+    }
+
+    @Test
+    void trigram_shouldFindWordFragmentsThatFullTextMisses() {
+        Item drill = save("Дрель аккумуляторная", "Для бетона", true);
+        save("Дрель сетевая", "Аккумулятор не нужен", false);
+        TrigramItemSearchEngine trigram = new TrigramItemSearchEngine(itemRepository);
+
+        assertThat(engine.search("умулятор", null, 0, 10).items()).isEmpty();
+        assertThat(trigram.search("УМУЛЯТОР", null, 0, 10).items()).extracting(Item::getId)
+                .containsExactly(drill.getId());
+        assertThat(trigram.search("50%", null, 0, 10).items()).isEmpty();
+    }
+
+    @Test
+    void searchIndexes_shouldServeTheSearchPredicates() {
+        jdbcTemplate.execute("SET LOCAL enable_seqscan = off");
+
+        String fullText = String.join("\n", jdbcTemplate.queryForList(
+                "EXPLAIN SELECT i.id FROM items i, plainto_tsquery('russian', 'дрель') q " +
+                        "WHERE i.available = TRUE AND i.search_vector @@ q", String.class));
+        String trigram = String.join("\n", jdbcTemplate.queryForList(
+                "EXPLAIN SELECT i.id FROM items i WHERE i.available = TRUE " +
+                        "AND lower(i.name) LIKE '%дрел%' ESCAPE '\\'", String.class));
+
+        assertThat(fullText).contains("idx_items_search_vector");
+        assertThat(trigram).contains("idx_items_name_trgm");
+    }
+
+    private Item save(String name, String description, boolean available) {
+        return itemRepository.save(new Item(null, name, description, available, owner, null));
+    }
+}
@@ -2,13 +2,17 @@ package ru.practicum.shareit.service;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exception.EmailAlreadyExistsException;
 import ru.practicum.shareit.exception.UserNotFoundException;
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.repository.UserRepository;
 import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.user.service.UserServiceImpl;
 
 import java.util.List;
 
@@ -68,6 +72,33 @@ class UserServiceImplTest {
                 .isInstanceOf(EmailAlreadyExistsException.class);
     }
 
+    @Test
+    void createUser_withEmailInOtherCase_shouldThrowException() {
+        UserDto duplicate = new UserDto(null, "Alice2", "ALICE@Example.com");
+
+        assertThatThrownBy(() -> userService.createUser(duplicate))
+                .isInstanceOf(EmailAlreadyExistsException.class);
+    }
+
+    @Test
+    void updateUser_withOwnEmailInOtherCase_shouldSucceed() {
+        UserDto updated = userService.updateUser(new UserDto(user1.getId(), null, "Alice@Example.com"));
+
+        assertThat(updated.getEmail()).isEqualTo("Alice@Example.com");
+    }
+
+    @Test
+    void createUser_lostRaceForEmail_shouldThrowEmailAlreadyExists() {
+        UserRepository racedRepository = Mockito.mock(UserRepository.class);
+        Mockito.when(racedRepository.existsByEmailIgnoreCase("carol@example.com")).thenReturn(false);
+        Mockito.when(racedRepository.saveAndFlush(Mockito.any())).thenThrow(new DataIntegrityViolationException(
+                "duplicate key value violates unique constraint \"ux_users_email_lower\""));
+        UserService service = new UserServiceImpl(racedRepository);
+
+        assertThatThrownBy(() -> service.createUser(new UserDto(null, "Carol", "carol@example.com")))
+                .isInstanceOf(EmailAlreadyExistsException.class);
+    }
+
     @Test
     void getUserById_shouldReturnUser() {
         UserDto found = userService.getUserById(user1.getId());